@@ -0,0 +1,109 @@
+package src;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns small dense integer ids to attribute strings so that student profiles
+ * can be compared with integer equality instead of string comparisons.
+ *
+ * <p>{@link #COMPANIES} holds internship companies (case-insensitive) for
+ * {@link UniversityStudent}, company bitsets and referral searches. Companies come
+ * from a small, slowly growing set, so their ids are kept for the life of the
+ * process. Names and majors, which change with every roster, are interned in a
+ * {@link WeakAttributeDictionary} instead.</p>
+ *
+ * <p>Case-insensitive dictionaries fold keys with {@link #fold(String)}, so two strings
+ * receive the same id exactly when {@link String#equalsIgnoreCase(String)} considers
+ * them equal. Ids are never reused and interning is thread-safe.</p>
+ */
+public final class AttributeDictionary {
+
+    /** Id used for {@code null} values, which are never interned. */
+    public static final int NULL_ID = -1;
+
+    /** Internship companies, compared case-insensitively. */
+    public static final AttributeDictionary COMPANIES = new AttributeDictionary(true);
+
+    /** Whether keys are case-folded before lookup. */
+    private final boolean caseInsensitive;
+
+    /** Key → id. */
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    /**
+     * Spellings already resolved → id, so that repeated lookups of the same string
+     * skip case folding and allocate nothing. Only used by case-insensitive dictionaries.
+     */
+    private final ConcurrentHashMap<String, Integer> spellings = new ConcurrentHashMap<>();
+
+    /** Next id to hand out. */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Creates an empty dictionary.
+     *
+     * @param caseInsensitive whether keys are compared ignoring case
+     */
+    private AttributeDictionary(boolean caseInsensitive) {
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    /**
+     * Returns the id of a value, assigning a new one if it has not been seen before.
+     *
+     * @param value the value to intern
+     * @return the value's id, or {@link #NULL_ID} for {@code null}
+     */
+    public int intern(String value) {
+        if (value == null) return NULL_ID;
+        int id = ids.computeIfAbsent(key(value), k -> next.getAndIncrement());
+        if (caseInsensitive) spellings.putIfAbsent(value, id);
+        return id;
+    }
+
+    /**
+     * Returns the id of a value without interning it.
+     *
+     * @param value the value to look up
+     * @return the value's id, or {@link #NULL_ID} if it is {@code null} or unknown
+     */
+    public int lookup(String value) {
+        if (value == null) return NULL_ID;
+        Integer id = caseInsensitive ? spellings.get(value) : null;
+        if (id != null) return id;
+
+        id = ids.get(key(value));
+        if (id == null) return NULL_ID;
+        if (caseInsensitive) spellings.putIfAbsent(value, id);
+        return id;
+    }
+
+    /**
+     * Returns the number of ids handed out so far. Every id is below this value.
+     *
+     * @return the dictionary size
+     */
+    public int size() {
+        return next.get();
+    }
+
+    private String key(String value) {
+        return caseInsensitive ? fold(value) : value;
+    }
+
+    /**
+     * Case-folds a string so that two folded strings are equal exactly when the
+     * originals are equal under {@link String#equalsIgnoreCase(String)}.
+     *
+     * @param s the string to fold
+     * @return the folded key
+     */
+    public static String fold(String s) {
+        char[] chars = s.toCharArray();
+        for (int k = 0; k < chars.length; k++) {
+            chars[k] = Character.toLowerCase(Character.toUpperCase(chars[k]));
+        }
+        return new String(chars);
+    }
+}
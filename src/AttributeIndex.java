@@ -0,0 +1,251 @@
+package src;
+
+import java.util.*;
+
+/**
+ * Inverted indexes over the attributes that contribute to
+ * {@link UniversityStudent#calculateConnectionStrength(Student)}.
+ *
+ * <p>Each index maps an attribute value to the ids of the students that carry it:</p>
+ * <ul>
+ *     <li>internship company → students who interned there</li>
+ *     <li>major → students in that major</li>
+ *     <li>age → students of that age</li>
+ *     <li>preferred roommate name → students who listed that name</li>
+ * </ul>
+ *
+ * <p>Two students can only have a non-zero connection strength if they share
+ * at least one posting in one of these indexes, so {@link StudentGraph} uses
+ * {@link #collectCandidates} to enumerate the pairs worth scoring instead of
+ * visiting all n² pairs, both when it is built and when a single student is
+ * added or changed.</p>
+ *
+ * <p>Keys are the dictionary-encoded attributes of each student (see
+ * {@link AttributeDictionary} and {@link WeakAttributeDictionary}), so they follow the same rules as the scoring function:
+ * internships and majors are compared case-insensitively, "None" internships and empty
+ * majors are ignored, only positive ages are indexed, and roommate preferences match
+ * names exactly.</p>
+ */
+public class AttributeIndex {
+
+    /** Internship company id → student ids. */
+    private final Map<Integer, Postings> byInternship = new HashMap<>();
+
+    /** Major id → student ids. */
+    private final Map<Integer, Postings> byMajor = new HashMap<>();
+
+    /** Age → student ids. */
+    private final Map<Integer, Postings> byAge = new HashMap<>();
+
+    /** Name id → ids of the students with that name. */
+    private final Map<Integer, Postings> byName = new HashMap<>();
+
+    /** Preferred roommate name id → ids of students who listed it. */
+    private final Map<Integer, Postings> byPreferredName = new HashMap<>();
+
+    /**
+     * Creates an empty index.
+     */
+    public AttributeIndex() {
+    }
+
+    /**
+     * Builds all attribute indexes for the given students, using each student's
+     * position in the list as its id.
+     *
+     * @param students the students to index
+     */
+    public AttributeIndex(List<UniversityStudent> students) {
+        for (int i = 0; i < students.size(); i++) {
+            add(i, students.get(i));
+        }
+    }
+
+    /**
+     * Adds a student's attributes to the index.
+     *
+     * @param id the id to post
+     * @param s the student whose attributes are indexed
+     */
+    public void add(int id, UniversityStudent s) {
+        post(byName, s.nameId, id);
+
+        for (int c : s.internshipIds) {
+            post(byInternship, c, id);
+        }
+
+        if (s.majorId != AttributeDictionary.NULL_ID) {
+            post(byMajor, s.majorId, id);
+        }
+
+        if (s.age > 0) {
+            post(byAge, s.age, id);
+        }
+
+        for (int p : s.preferenceIds) {
+            post(byPreferredName, p, id);
+        }
+    }
+
+    /**
+     * Removes a student's attributes from the index. {@code s} must carry the same
+     * attributes it was added with.
+     *
+     * @param id the id to remove
+     * @param s the student whose attributes were indexed
+     */
+    public void remove(int id, UniversityStudent s) {
+        unpost(byName, s.nameId, id);
+
+        for (int c : s.internshipIds) {
+            unpost(byInternship, c, id);
+        }
+
+        if (s.majorId != AttributeDictionary.NULL_ID) {
+            unpost(byMajor, s.majorId, id);
+        }
+
+        if (s.age > 0) {
+            unpost(byAge, s.age, id);
+        }
+
+        for (int p : s.preferenceIds) {
+            unpost(byPreferredName, p, id);
+        }
+    }
+
+    /**
+     * Collects every student id greater than {@code after}, other than {@code self},
+     * that shares at least one indexed attribute with {@code s}.
+     *
+     * <p>The result is written into {@code out} in ascending order, without duplicates.
+     * {@code seen} is a caller-owned scratch array with one slot per possible id; a slot
+     * equal to {@code stamp} marks an id already collected, so by passing a fresh stamp
+     * on every call the array never needs clearing.</p>
+     *
+     * @param s the student whose candidates are requested
+     * @param self the id of {@code s}, which is never collected
+     * @param after only ids strictly greater than this are collected; pass {@code -1} for all
+     * @param seen scratch stamp array, one slot per possible id
+     * @param stamp a value no slot of {@code seen} has been stamped with since it was last used
+     * @param out output buffer with one slot per possible id
+     * @return the number of candidates written to {@code out}
+     */
+    public int collectCandidates(UniversityStudent s, int self, int after,
+                                 int[] seen, int stamp, int[] out) {
+        if (self >= 0) seen[self] = stamp;
+        int count = 0;
+
+        for (int k = 0; k < s.internshipIds.length; k++) {
+            int c = s.internshipIds[k];
+            // Repeated companies share one postings list
+            if (k > 0 && s.internshipIds[k - 1] == c) continue;
+            count = append(byInternship.get(c), after, seen, stamp, out, count);
+        }
+
+        if (s.majorId != AttributeDictionary.NULL_ID) {
+            count = append(byMajor.get(s.majorId), after, seen, stamp, out, count);
+        }
+
+        if (s.age > 0) {
+            count = append(byAge.get(s.age), after, seen, stamp, out, count);
+        }
+
+        // Students this one prefers, and students who prefer this one
+        for (int p : s.preferenceIds) {
+            count = append(byName.get(p), after, seen, stamp, out, count);
+        }
+        count = append(byPreferredName.get(s.nameId), after, seen, stamp, out, count);
+
+        Arrays.sort(out, 0, count);
+        return count;
+    }
+
+    /**
+     * Returns the ids of the students who list a company among their internships.
+     *
+     * @param companyId the company's id in {@link AttributeDictionary#COMPANIES}
+     * @return the matching ids in ascending order; empty if there are none
+     */
+    public int[] internsOf(int companyId) {
+        Postings p = byInternship.get(companyId);
+        return (p == null) ? new int[0] : Arrays.copyOf(p.ids, p.size);
+    }
+
+    /**
+     * Copies the ids of the students who interned at a company into a caller-owned
+     * buffer, without allocating.
+     *
+     * @param companyId the company's id in {@link AttributeDictionary#COMPANIES}
+     * @param out buffer with room for every matching id
+     * @return the number of ids written, in ascending order
+     */
+    public int internsOf(int companyId, int[] out) {
+        Postings p = byInternship.get(companyId);
+        if (p == null) return 0;
+        System.arraycopy(p.ids, 0, out, 0, p.size);
+        return p.size;
+    }
+
+    private static void post(Map<Integer, Postings> index, int key, int id) {
+        index.computeIfAbsent(key, k -> new Postings()).add(id);
+    }
+
+    private static void unpost(Map<Integer, Postings> index, int key, int id) {
+        Postings p = index.get(key);
+        if (p == null) return;
+        p.remove(id);
+        if (p.size == 0) index.remove(key);
+    }
+
+    /**
+     * Appends the postings greater than {@code after} that have not yet been stamped.
+     */
+    private static int append(Postings postings, int after, int[] seen, int stamp,
+                              int[] out, int count) {
+        if (postings == null) return count;
+        int[] ids = postings.ids;
+
+        // Postings are ascending, so skip straight past everything <= after
+        int from = Arrays.binarySearch(ids, 0, postings.size, after);
+        from = (from >= 0) ? from + 1 : -from - 1;
+
+        for (int k = from; k < postings.size; k++) {
+            int j = ids[k];
+            if (seen[j] != stamp) {
+                seen[j] = stamp;
+                out[count++] = j;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Growable, ascending set of student ids.
+     */
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            // New ids are normally the largest, so appending is the common case
+            int at = (size == 0 || ids[size - 1] < id) ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+
+            // A student listing the same value twice is only posted once
+            if (at >= 0) return;
+            at = -at - 1;
+
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) return;
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+        }
+    }
+}
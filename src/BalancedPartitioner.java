@@ -0,0 +1,530 @@
+package src;
+
+import java.util.*;
+
+/**
+ * Splits one connected component into parts of near-equal size while keeping as
+ * much edge weight as possible inside the parts, in the style of multilevel
+ * partitioners such as METIS.
+ *
+ * <p>The component is given in CSR form with component-local ids. Partitioning has
+ * three phases:</p>
+ * <ol>
+ *     <li><b>Coarsening.</b> Heavy-edge matching pairs every vertex with the unmatched
+ *         neighbor it is most strongly connected to, as long as the merged weight fits
+ *         in a part, and contracts each pair into one vertex. Levels are built until a
+ *         level stops shrinking noticeably.</li>
+ *     <li><b>Initial partition.</b> On the coarsest level parts are grown one at a
+ *         time from the heaviest free vertex, always absorbing the free vertex with the
+ *         strongest total connection to the part, until the part is full.</li>
+ *     <li><b>Refinement.</b> The partition is projected back level by level. On each
+ *         level boundary vertices move to the neighboring part they are most strongly
+ *         connected to, or swap with a vertex of that part when a move would break the
+ *         size bounds. Only changes that strictly raise the internal weight are made.</li>
+ * </ol>
+ *
+ * <p>On the finest level the sizes are then fixed to {@code floor(n / parts)} or
+ * {@code ceil(n / parts)} by moving the least costly students, followed by a last
+ * refinement that respects those bounds. Every loop runs in id order, so the result
+ * is deterministic.</p>
+ */
+final class BalancedPartitioner {
+
+    /** A level shrinking to more than this fraction of the previous one ends coarsening. */
+    private static final double MIN_SHRINK = 0.9;
+
+    /** Refinement passes per level; a pass without improvement ends refinement early. */
+    private static final int REFINE_PASSES = 8;
+
+    private BalancedPartitioner() {
+    }
+
+    /**
+     * Partitions a connected graph with unit vertex weights.
+     *
+     * @param n the number of vertices
+     * @param xadj edge slots of vertex {@code u} are {@code [xadj[u], xadj[u + 1])}
+     * @param adj neighbor of each edge slot; every edge appears in both directions
+     * @param ewgt positive weight of each edge slot
+     * @param parts the number of parts, at least 1
+     * @return the part of each vertex, in {@code [0, parts)}
+     */
+    static int[] partition(int n, int[] xadj, int[] adj, int[] ewgt, int parts) {
+        if (parts <= 1) return new int[n];
+
+        int lo = n / parts;
+        int hi = (n + parts - 1) / parts;
+
+        int[] ones = new int[n];
+        Arrays.fill(ones, 1);
+        List<Level> levels = new ArrayList<>();
+        levels.add(new Level(n, xadj, adj, ewgt, ones));
+
+        Level coarsest = levels.get(0);
+        while (coarsest.n > parts) {
+            Level next = coarsest.coarsen(hi);
+            if (next.n > MIN_SHRINK * coarsest.n) break;
+            levels.add(next);
+            coarsest = next;
+        }
+
+        int[] part = grow(coarsest, parts, hi);
+        for (int l = levels.size() - 1; l >= 0; l--) {
+            Level level = levels.get(l);
+            if (l < levels.size() - 1) {
+                int[] fine = new int[level.n];
+                for (int u = 0; u < level.n; u++) {
+                    fine[u] = part[level.map[u]];
+                }
+                part = fine;
+            }
+
+            Refiner refiner = new Refiner(level, part, parts);
+            if (l == 0) {
+                refiner.balance(lo, hi);
+                refiner.refine(lo, hi);
+            } else {
+                refiner.refine(0, hi);
+            }
+        }
+        return part;
+    }
+
+    /**
+     * Builds the initial partition by growing parts one at a time on an
+     * {@link IndexedMinHeap} keyed by minus the connection to the growing part.
+     * Vertices left over when every part has been grown join the part they are most
+     * strongly connected to that has room, or else the lightest part.
+     */
+    private static int[] grow(Level g, int parts, int hi) {
+        int n = g.n;
+        int[] part = new int[n];
+        Arrays.fill(part, -1);
+        int[] weight = new int[parts];
+
+        // Seeds: heaviest vertices first, then by id
+        long[] seeds = new long[n];
+        for (int u = 0; u < n; u++) {
+            seeds[u] = ((long) (hi - g.vwgt[u]) << 32) | u;
+        }
+        Arrays.sort(seeds);
+
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        int cursor = 0;
+        for (int k = 0; k < parts; k++) {
+            while (cursor < n && part[(int) seeds[cursor]] >= 0) cursor++;
+            if (cursor == n) break;
+            heap.offer((int) seeds[cursor], 0);
+
+            while (!heap.isEmpty() && weight[k] < hi) {
+                int u = heap.poll();
+                // Too heavy for what is left; a later part may still take it
+                if (weight[k] + g.vwgt[u] > hi) continue;
+
+                part[u] = k;
+                weight[k] += g.vwgt[u];
+                for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+                    int v = g.adj[e];
+                    if (part[v] >= 0) continue;
+                    int key = heap.contains(v) ? heap.key(v) : 0;
+                    heap.offer(v, key - g.ewgt[e]);
+                }
+            }
+            heap.clear();
+        }
+
+        int[] conn = new int[parts];
+        for (int u = 0; u < n; u++) {
+            if (part[u] >= 0) continue;
+
+            for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+                if (part[g.adj[e]] >= 0) conn[part[g.adj[e]]] += g.ewgt[e];
+            }
+            int best = -1;
+            for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+                int p = part[g.adj[e]];
+                if (p < 0 || weight[p] + g.vwgt[u] > hi) continue;
+                if (best < 0 || conn[p] > conn[best] || (conn[p] == conn[best] && p < best)) best = p;
+            }
+            for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+                if (part[g.adj[e]] >= 0) conn[part[g.adj[e]]] = 0;
+            }
+
+            if (best < 0) best = lightest(weight);
+            part[u] = best;
+            weight[best] += g.vwgt[u];
+        }
+        return part;
+    }
+
+    /**
+     * Returns the lightest part, the lowest index among ties.
+     */
+    private static int lightest(int[] weight) {
+        int best = 0;
+        for (int p = 1; p < weight.length; p++) {
+            if (weight[p] < weight[best]) best = p;
+        }
+        return best;
+    }
+
+    /**
+     * One level of the multilevel hierarchy: a weighted graph in CSR form, plus the
+     * map to the next coarser level once it has been built.
+     */
+    private static class Level {
+        final int n;
+        final int[] xadj;
+        final int[] adj;
+        final int[] ewgt;
+        final int[] vwgt;
+
+        /** Coarse vertex of each vertex, set by {@link #coarsen}. */
+        int[] map;
+
+        Level(int n, int[] xadj, int[] adj, int[] ewgt, int[] vwgt) {
+            this.n = n;
+            this.xadj = xadj;
+            this.adj = adj;
+            this.ewgt = ewgt;
+            this.vwgt = vwgt;
+        }
+
+        /**
+         * Contracts a heavy-edge matching in which no merged vertex weighs more than
+         * {@code cap}. Parallel edges between coarse vertices are merged by adding
+         * their weights, and edges inside a coarse vertex disappear.
+         */
+        Level coarsen(int cap) {
+            int[] match = new int[n];
+            Arrays.fill(match, -1);
+            for (int u = 0; u < n; u++) {
+                if (match[u] >= 0) continue;
+
+                int best = -1;
+                int bestWeight = 0;
+                for (int e = xadj[u]; e < xadj[u + 1]; e++) {
+                    int v = adj[e];
+                    if (v == u || match[v] >= 0 || vwgt[u] + vwgt[v] > cap) continue;
+                    // Heaviest edge first, then the lighter partner
+                    if (ewgt[e] > bestWeight || (ewgt[e] == bestWeight && best >= 0 && vwgt[v] < vwgt[best])) {
+                        best = v;
+                        bestWeight = ewgt[e];
+                    }
+                }
+
+                if (best < 0) {
+                    match[u] = u;
+                } else {
+                    match[u] = best;
+                    match[best] = u;
+                }
+            }
+
+            map = new int[n];
+            int cn = 0;
+            int[] first = new int[n];
+            for (int u = 0; u < n; u++) {
+                if (match[u] < u) continue;
+                map[u] = cn;
+                map[match[u]] = cn;
+                first[cn++] = u;
+            }
+
+            int[] cxadj = new int[cn + 1];
+            int[] cadj = new int[xadj[n]];
+            int[] cewgt = new int[xadj[n]];
+            int[] cvwgt = new int[cn];
+            int[] mark = new int[cn];
+            int[] slot = new int[cn];
+            int len = 0;
+
+            for (int c = 0; c < cn; c++) {
+                int u = first[c];
+                int v = match[u];
+                cvwgt[c] = (u == v) ? vwgt[u] : vwgt[u] + vwgt[v];
+
+                for (int x = u; ; x = v) {
+                    for (int e = xadj[x]; e < xadj[x + 1]; e++) {
+                        int cv = map[adj[e]];
+                        if (cv == c) continue;
+                        if (mark[cv] != c + 1) {
+                            mark[cv] = c + 1;
+                            slot[cv] = len;
+                            cadj[len] = cv;
+                            cewgt[len] = ewgt[e];
+                            len++;
+                        } else {
+                            cewgt[slot[cv]] += ewgt[e];
+                        }
+                    }
+                    if (x == v) break;
+                }
+                cxadj[c + 1] = len;
+            }
+
+            return new Level(cn, cxadj, cadj, cewgt, cvwgt);
+        }
+    }
+
+    /**
+     * Gain-driven moves and swaps over one level of the hierarchy.
+     */
+    private static class Refiner {
+        private final Level g;
+        private final int[] part;
+        private final int[] weight;
+
+        /** Members of each part as doubly linked lists. */
+        private final int[] head;
+        private final int[] next;
+        private final int[] prev;
+
+        /** Connection of the current vertex to each part, valid where stamped. */
+        private final int[] conn;
+        private final int[] connStamp;
+        private final int[] touched;
+        private int touchedCount;
+        private int stamp;
+
+        Refiner(Level g, int[] part, int parts) {
+            this.g = g;
+            this.part = part;
+            this.weight = new int[parts];
+            this.head = new int[parts];
+            this.next = new int[g.n];
+            this.prev = new int[g.n];
+            this.conn = new int[parts];
+            this.connStamp = new int[parts];
+            this.touched = new int[parts];
+
+            Arrays.fill(head, -1);
+            for (int u = g.n - 1; u >= 0; u--) {
+                weight[part[u]] += g.vwgt[u];
+                link(u, part[u]);
+            }
+        }
+
+        /**
+         * Repeatedly moves or swaps boundary vertices while that strictly raises the
+         * weight inside parts, keeping every part weight within {@code [lo, hi]}.
+         */
+        void refine(int lo, int hi) {
+            for (int pass = 0; pass < REFINE_PASSES; pass++) {
+                boolean improved = false;
+
+                for (int u = 0; u < g.n; u++) {
+                    int a = part[u];
+                    int w = g.vwgt[u];
+                    connect(u);
+                    int internal = connTo(a);
+
+                    int move = -1;
+                    int moveGain = 0;
+                    int swapPart = -1;
+                    int swapGain = 0;
+                    for (int t = 0; t < touchedCount; t++) {
+                        int b = touched[t];
+                        if (b == a) continue;
+                        int gain = conn[b] - internal;
+                        if (gain <= 0) continue;
+
+                        if (weight[b] + w <= hi && weight[a] - w >= lo) {
+                            if (gain > moveGain || (gain == moveGain && b < move)) {
+                                move = b;
+                                moveGain = gain;
+                            }
+                        } else if (gain > swapGain || (gain == swapGain && b < swapPart)) {
+                            swapPart = b;
+                            swapGain = gain;
+                        }
+                    }
+
+                    if (move >= 0) {
+                        moveTo(u, move);
+                        improved = true;
+                    } else if (swapPart >= 0 && trySwap(u, swapPart, swapGain, lo, hi)) {
+                        improved = true;
+                    }
+                }
+
+                if (!improved) break;
+            }
+        }
+
+        /**
+         * Brings every part weight into {@code [lo, hi]}: overweight parts hand their
+         * cheapest vertices to parts with room, then underweight parts pull the
+         * vertices that cost their donors least. Meant for the finest level, where every
+         * vertex weighs 1 and the bounds can always be met.
+         */
+        void balance(int lo, int hi) {
+            for (int k = 0; k < weight.length; k++) {
+                while (weight[k] > hi) {
+                    int bestU = -1;
+                    int bestTarget = -1;
+                    long bestGain = Long.MIN_VALUE;
+
+                    for (int u = head[k]; u >= 0; u = next[u]) {
+                        connect(u);
+                        int internal = connTo(k);
+                        for (int t = 0; t < touchedCount; t++) {
+                            int b = touched[t];
+                            if (b == k || weight[b] + g.vwgt[u] > hi) continue;
+                            long gain = conn[b] - internal;
+                            if (gain > bestGain) {
+                                bestGain = gain;
+                                bestU = u;
+                                bestTarget = b;
+                            }
+                        }
+
+                        // A part it has no edge to only costs the edges it leaves behind
+                        if (-internal > bestGain) {
+                            int b = lightestOther(k, hi - g.vwgt[u]);
+                            if (b >= 0) {
+                                bestGain = -internal;
+                                bestU = u;
+                                bestTarget = b;
+                            }
+                        }
+                    }
+                    if (bestU < 0) break;
+                    moveTo(bestU, bestTarget);
+                }
+            }
+
+            for (int k = 0; k < weight.length; k++) {
+                while (weight[k] < lo) {
+                    int bestV = -1;
+                    long bestGain = Long.MIN_VALUE;
+
+                    // Neighbors of the part first, so pulled students bring connections
+                    for (int u = head[k]; u >= 0; u = next[u]) {
+                        for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+                            int v = g.adj[e];
+                            int d = part[v];
+                            if (d == k || weight[d] - g.vwgt[v] < lo) continue;
+                            connect(v);
+                            long gain = connTo(k) - connTo(d);
+                            if (gain > bestGain || (gain == bestGain && v < bestV)) {
+                                bestGain = gain;
+                                bestV = v;
+                            }
+                        }
+                    }
+
+                    if (bestV < 0) {
+                        for (int v = 0; v < g.n; v++) {
+                            int d = part[v];
+                            if (d == k || weight[d] - g.vwgt[v] < lo) continue;
+                            connect(v);
+                            long gain = connTo(k) - connTo(d);
+                            if (gain > bestGain) {
+                                bestGain = gain;
+                                bestV = v;
+                            }
+                        }
+                    }
+                    if (bestV < 0) break;
+                    moveTo(bestV, k);
+                }
+            }
+        }
+
+        /**
+         * Looks for a vertex of part {@code b} whose exchange with {@code u} raises the
+         * internal weight and keeps both parts within bounds, and makes the best such swap.
+         */
+        private boolean trySwap(int u, int b, int gainU, int lo, int hi) {
+            int a = part[u];
+            int wu = g.vwgt[u];
+            int best = -1;
+            long bestGain = 0;
+
+            for (int v = head[b]; v >= 0; v = next[v]) {
+                int wv = g.vwgt[v];
+                int wa = weight[a] - wu + wv;
+                int wb = weight[b] - wv + wu;
+                if (wa > hi || wa < lo || wb > hi || wb < lo) continue;
+
+                int toA = 0;
+                int toB = 0;
+                int shared = 0;
+                for (int e = g.xadj[v]; e < g.xadj[v + 1]; e++) {
+                    int x = g.adj[e];
+                    if (x == u) shared += g.ewgt[e];
+                    if (part[x] == a) toA += g.ewgt[e];
+                    else if (part[x] == b) toB += g.ewgt[e];
+                }
+
+                // The u-v edge counts toward both gains but stays cut after the swap
+                long gain = (long) gainU + (toA - toB) - 2L * shared;
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    best = v;
+                }
+            }
+
+            if (best < 0) return false;
+            moveTo(best, a);
+            moveTo(u, b);
+            return true;
+        }
+
+        /**
+         * Returns the lightest part other than {@code k} weighing at most {@code limit}.
+         */
+        private int lightestOther(int k, int limit) {
+            int best = -1;
+            for (int p = 0; p < weight.length; p++) {
+                if (p == k || weight[p] > limit) continue;
+                if (best < 0 || weight[p] < weight[best]) best = p;
+            }
+            return best;
+        }
+
+        /**
+         * Sums the weight of {@code u}'s edges into each neighboring part.
+         */
+        private void connect(int u) {
+            stamp++;
+            touchedCount = 0;
+            for (int e = g.xadj[u]; e < g.xadj[u + 1]; e++) {
+                int p = part[g.adj[e]];
+                if (connStamp[p] != stamp) {
+                    connStamp[p] = stamp;
+                    conn[p] = 0;
+                    touched[touchedCount++] = p;
+                }
+                conn[p] += g.ewgt[e];
+            }
+        }
+
+        private int connTo(int p) {
+            return (connStamp[p] == stamp) ? conn[p] : 0;
+        }
+
+        private void moveTo(int u, int b) {
+            int a = part[u];
+            unlink(u, a);
+            weight[a] -= g.vwgt[u];
+            part[u] = b;
+            weight[b] += g.vwgt[u];
+            link(u, b);
+        }
+
+        private void link(int u, int p) {
+            prev[u] = -1;
+            next[u] = head[p];
+            if (head[p] >= 0) prev[head[p]] = u;
+            head[p] = u;
+        }
+
+        private void unlink(int u, int p) {
+            if (prev[u] >= 0) next[prev[u]] = next[u];
+            else head[p] = next[u];
+            if (next[u] >= 0) prev[next[u]] = prev[u];
+        }
+    }
+}
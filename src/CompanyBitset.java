@@ -0,0 +1,94 @@
+package src;
+
+import java.util.*;
+
+/**
+ * A compact bitset over internship company ids from {@link AttributeDictionary#COMPANIES}.
+ *
+ * <p>Only the 64-bit words that contain at least one set bit are stored, each tagged
+ * with its word index (a simplified roaring-style container). A student with a few
+ * internships therefore costs a few words even when the dictionary holds thousands
+ * of companies, and the overlap of two sets is a merge over the word keys with one
+ * {@code popcount(a & b)} per shared word instead of a comparison per pair of
+ * internships.</p>
+ *
+ * <p>{@link DataParser} interns the most frequent companies first, so popular
+ * companies share the low words and most intersections touch only one or two keys.</p>
+ */
+public final class CompanyBitset {
+
+    /** Shared instance for students without internships. */
+    static final CompanyBitset EMPTY = new CompanyBitset(new int[0], new long[0]);
+
+    /** Word indexes ({@code id >>> 6}) of the stored words, ascending. */
+    private final int[] keys;
+
+    /** Bits of each stored word, aligned with {@link #keys}. */
+    private final long[] words;
+
+    private CompanyBitset(int[] keys, long[] words) {
+        this.keys = keys;
+        this.words = words;
+    }
+
+    /**
+     * Builds a bitset from sorted, non-negative company ids. Repeated ids collapse
+     * into a single bit.
+     *
+     * @param sortedIds company ids in ascending order
+     * @return the bitset holding those ids
+     */
+    public static CompanyBitset of(int[] sortedIds) {
+        if (sortedIds.length == 0) return EMPTY;
+
+        int[] keys = new int[sortedIds.length];
+        long[] words = new long[sortedIds.length];
+        int count = -1;
+
+        for (int id : sortedIds) {
+            int key = id >>> 6;
+            if (count < 0 || keys[count] != key) {
+                keys[++count] = key;
+            }
+            words[count] |= 1L << id;
+        }
+
+        count++;
+        return new CompanyBitset(Arrays.copyOf(keys, count), Arrays.copyOf(words, count));
+    }
+
+    /**
+     * Returns the number of companies in the set.
+     *
+     * @return the number of set bits
+     */
+    public int cardinality() {
+        int total = 0;
+        for (long w : words) total += Long.bitCount(w);
+        return total;
+    }
+
+    /**
+     * Counts the companies present in both sets.
+     *
+     * @param other the other set
+     * @return the size of the intersection
+     */
+    public int intersectionCount(CompanyBitset other) {
+        int[] ka = keys, kb = other.keys;
+        long[] wa = words, wb = other.words;
+        int i = 0, j = 0, count = 0;
+
+        while (i < ka.length && j < kb.length) {
+            int x = ka[i], y = kb[j];
+            if (x < y) {
+                i++;
+            } else if (x > y) {
+                j++;
+            } else {
+                count += Long.bitCount(wa[i++] & wb[j++]);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,326 @@
+package src;
+
+import java.util.*;
+
+/**
+ * Batch form of {@link UniversityStudent#calculateConnectionStrength(Student)}:
+ * scores one student against a whole cohort, or a contiguous block of it,
+ * in a single pass into a primitive {@code int[]}.
+ *
+ * <p>The cohort is stored column-wise (one primitive array per attribute) so that
+ * the age and major terms are a straight loop over {@code int[]}s the JIT can unroll
+ * and vectorize, the internship term is only evaluated for cohort members that have
+ * internships, and the roommate term is applied through a name index instead of
+ * being tested for every pair. There is no virtual dispatch, type check or allocation
+ * per scored pair.</p>
+ *
+ * <p>Two flavors are offered:</p>
+ * <ul>
+ *     <li>{@link #scoreAgainst} gives the directional score {@code s → cohort[j]},
+ *         exactly what {@code s.calculateConnectionStrength(cohort[j])} returns.</li>
+ *     <li>{@link #scoreSymmetric} gives {@code max(s → j, j → s)}, the edge weight
+ *         used by {@link StudentGraph}.</li>
+ * </ul>
+ *
+ * <p>Positions double as {@link StudentGraph} ids: {@link #set} and {@link #clear} let the
+ * graph add and drop single students without rebuilding the columns. A scorer may be
+ * shared between threads as long as nobody modifies it concurrently.</p>
+ */
+public class ConnectionScorer {
+
+    /** The cohort, by position. */
+    private UniversityStudent[] students;
+
+    /** Age of each cohort member, or 0 where the age is not positive. */
+    private int[] ages;
+
+    /** Major id of each cohort member. */
+    private int[] majorIds;
+
+    /** Name id of each cohort member. */
+    private int[] nameIds;
+
+    /** Sorted internship ids of each cohort member. */
+    private int[][] internshipIds;
+
+    /** Internship bitset of each cohort member, or {@code null} where a company repeats. */
+    private CompanyBitset[] internshipBits;
+
+    /** Shared empty internship array for empty positions. */
+    private static final int[] EMPTY = new int[0];
+
+    /** Number of positions in use, including empty ones below the highest set position. */
+    private int size;
+
+    /** Name id → positions of cohort members with that name. */
+    private final Map<Integer, int[]> positionsByName = new HashMap<>();
+
+    /** Name id → positions of cohort members who list that name as a preference. */
+    private final Map<Integer, int[]> proposersByName = new HashMap<>();
+
+    /**
+     * Lays out a cohort for batch scoring.
+     *
+     * @param cohort the students to score against; positions in this list are the
+     *               indexes used by the scoring methods
+     */
+    public ConnectionScorer(List<UniversityStudent> cohort) {
+        int n = cohort.size();
+        students = new UniversityStudent[n];
+        ages = new int[n];
+        majorIds = new int[n];
+        nameIds = new int[n];
+        internshipIds = new int[n][];
+        internshipBits = new CompanyBitset[n];
+
+        Map<Integer, List<Integer>> names = new HashMap<>();
+        Map<Integer, List<Integer>> proposers = new HashMap<>();
+
+        for (int j = 0; j < n; j++) {
+            UniversityStudent s = cohort.get(j);
+            store(j, s);
+
+            names.computeIfAbsent(s.nameId, k -> new ArrayList<>()).add(j);
+            for (int p : s.preferenceIds) {
+                proposers.computeIfAbsent(p, k -> new ArrayList<>()).add(j);
+            }
+        }
+
+        names.forEach((k, v) -> positionsByName.put(k, toArray(v)));
+        proposers.forEach((k, v) -> proposersByName.put(k, toArray(v)));
+        size = n;
+    }
+
+    /**
+     * Places a student at a position, growing the cohort if needed. The position
+     * must be empty, either beyond the current size or previously {@link #clear}ed.
+     *
+     * @param j the position
+     * @param s the student to store there
+     */
+    public void set(int j, UniversityStudent s) {
+        if (j >= students.length) grow(Math.max(j + 1, students.length * 2));
+        size = Math.max(size, j + 1);
+        store(j, s);
+
+        positionsByName.merge(s.nameId, new int[] {j}, ConnectionScorer::union);
+        for (int p : s.preferenceIds) {
+            proposersByName.merge(p, new int[] {j}, ConnectionScorer::union);
+        }
+    }
+
+    /**
+     * Empties a position. Block scoring reports 0 for empty positions, and they must
+     * not be passed to {@link #scoreSymmetric(UniversityStudent, int[], int, int[])}.
+     *
+     * @param j the position to empty
+     */
+    public void clear(int j) {
+        UniversityStudent s = students[j];
+        if (s == null) return;
+
+        positionsByName.computeIfPresent(s.nameId, (k, v) -> without(v, j));
+        for (int p : s.preferenceIds) {
+            proposersByName.computeIfPresent(p, (k, v) -> without(v, j));
+        }
+
+        students[j] = null;
+        ages[j] = 0;
+        majorIds[j] = AttributeDictionary.NULL_ID;
+        nameIds[j] = AttributeDictionary.NULL_ID;
+        internshipIds[j] = EMPTY;
+        internshipBits[j] = null;
+    }
+
+    /**
+     * Returns the number of students in the cohort.
+     *
+     * @return the cohort size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the cohort member at a position.
+     *
+     * @param j the position
+     * @return the student, or {@code null} if the position is empty
+     */
+    public UniversityStudent getStudent(int j) {
+        return students[j];
+    }
+
+    /**
+     * Scores a student against every member of the cohort.
+     *
+     * @param s the student doing the scoring
+     * @return {@code s.calculateConnectionStrength(cohort[j])} for every position {@code j}
+     */
+    public int[] scoreAgainst(UniversityStudent s) {
+        int[] out = new int[size];
+        scoreAgainst(s, 0, size, out);
+        return out;
+    }
+
+    /**
+     * Scores a student against the block {@code [from, to)} of the cohort, writing the
+     * directional score {@code s → cohort[j]} into {@code out[j - from]}.
+     *
+     * @param s the student doing the scoring
+     * @param from first cohort position, inclusive
+     * @param to last cohort position, exclusive
+     * @param out output buffer of at least {@code to - from} entries
+     */
+    public void scoreAgainst(UniversityStudent s, int from, int to, int[] out) {
+        scoreCommon(s, from, to, out);
+
+        // Roommate preference match: only the students s listed
+        for (int p : s.preferenceIds) {
+            int[] positions = positionsByName.get(p);
+            if (positions == null) continue;
+            for (int j : positions) {
+                if (j >= from && j < to) out[j - from] += 4;
+            }
+        }
+    }
+
+    /**
+     * Scores a student against the block {@code [from, to)} of the cohort, writing the
+     * undirected edge weight {@code max(s → j, j → s)} into {@code out[j - from]}.
+     *
+     * @param s the student doing the scoring
+     * @param from first cohort position, inclusive
+     * @param to last cohort position, exclusive
+     * @param out output buffer of at least {@code to - from} entries
+     */
+    public void scoreSymmetric(UniversityStudent s, int from, int to, int[] out) {
+        scoreCommon(s, from, to, out);
+
+        // The two directions differ only in the roommate term, so the maximum adds
+        // 4 once if either student lists the other
+        for (int p : s.preferenceIds) {
+            int[] positions = positionsByName.get(p);
+            if (positions == null) continue;
+            for (int j : positions) {
+                if (j >= from && j < to) out[j - from] += 4;
+            }
+        }
+
+        int[] proposers = proposersByName.get(s.nameId);
+        if (proposers != null) {
+            for (int j : proposers) {
+                if (j >= from && j < to && !prefers(s, nameIds[j])) out[j - from] += 4;
+            }
+        }
+    }
+
+    /**
+     * Scores a student against an arbitrary list of cohort positions, writing the
+     * undirected edge weight {@code max(s → j, j → s)} for {@code positions[k]}
+     * into {@code out[k]}.
+     *
+     * @param s the student doing the scoring
+     * @param positions cohort positions to score
+     * @param count number of entries of {@code positions} to use
+     * @param out output buffer of at least {@code count} entries
+     */
+    public void scoreSymmetric(UniversityStudent s, int[] positions, int count, int[] out) {
+        int age = (s.age > 0) ? s.age : -1;
+        int major = s.majorId;
+        int[] ia = s.internshipIds;
+        CompanyBitset ba = s.internshipBits;
+
+        for (int k = 0; k < count; k++) {
+            int j = positions[k];
+            int score = 0;
+
+            if (ages[j] == age) score += 1;
+            if (major != AttributeDictionary.NULL_ID && majorIds[j] == major) score += 2;
+            if (ia.length > 0 && internshipIds[j].length > 0) {
+                score += 3 * UniversityStudent.sharedInternships(ia, ba, internshipIds[j], internshipBits[j]);
+            }
+            if (prefers(s, nameIds[j]) || prefers(students[j], s.nameId)) score += 4;
+
+            out[k] = score;
+        }
+    }
+
+    /**
+     * Fills {@code out} with the age, major and internship terms, which are the
+     * same in both directions.
+     */
+    private void scoreCommon(UniversityStudent s, int from, int to, int[] out) {
+        // Stored ages are never negative, so -1 keeps the age > 0 rule branch-free
+        int age = (s.age > 0) ? s.age : -1;
+        int major = (s.majorId == AttributeDictionary.NULL_ID) ? Integer.MIN_VALUE : s.majorId;
+
+        for (int j = from; j < to; j++) {
+            out[j - from] = (ages[j] == age ? 1 : 0) + (majorIds[j] == major ? 2 : 0);
+        }
+
+        int[] ia = s.internshipIds;
+        if (ia.length == 0) return;
+
+        CompanyBitset ba = s.internshipBits;
+        for (int j = from; j < to; j++) {
+            int[] ib = internshipIds[j];
+            if (ib.length == 0) continue;
+            out[j - from] += 3 * UniversityStudent.sharedInternships(ia, ba, ib, internshipBits[j]);
+        }
+    }
+
+    /**
+     * Copies one student's attributes into the columns at position {@code j}.
+     */
+    private void store(int j, UniversityStudent s) {
+        students[j] = s;
+        ages[j] = Math.max(s.age, 0);
+        majorIds[j] = s.majorId;
+        nameIds[j] = s.nameId;
+        internshipIds[j] = s.internshipIds;
+        internshipBits[j] = s.internshipBits;
+    }
+
+    /**
+     * Grows every column to the given capacity; new positions are empty.
+     */
+    private void grow(int capacity) {
+        int old = students.length;
+        students = Arrays.copyOf(students, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        majorIds = Arrays.copyOf(majorIds, capacity);
+        nameIds = Arrays.copyOf(nameIds, capacity);
+        internshipIds = Arrays.copyOf(internshipIds, capacity);
+        internshipBits = Arrays.copyOf(internshipBits, capacity);
+
+        Arrays.fill(majorIds, old, capacity, AttributeDictionary.NULL_ID);
+        Arrays.fill(nameIds, old, capacity, AttributeDictionary.NULL_ID);
+        Arrays.fill(internshipIds, old, capacity, EMPTY);
+    }
+
+    /**
+     * Returns whether a student lists a given name id as a roommate preference.
+     */
+    private static boolean prefers(UniversityStudent s, int nameId) {
+        return Arrays.binarySearch(s.preferenceIds, nameId) >= 0;
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] out = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        Arrays.sort(out);
+        return out;
+    }
+
+    private static int[] without(int[] values, int j) {
+        int[] out = Arrays.stream(values).filter(v -> v != j).toArray();
+        return (out.length == 0) ? null : out;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] out = new int[values.size()];
+        for (int k = 0; k < out.length; k++) out[k] = values.get(k);
+        return out;
+    }
+}
@@ -0,0 +1,258 @@
+package src;
+
+import java.util.*;
+
+/**
+ * An immutable, compressed sparse row (CSR) snapshot of a {@link StudentGraph}.
+ *
+ * <p>Every student has a dense integer id in {@code [0, size())}, the same id
+ * {@link StudentGraph#getId} reports. The edges of student {@code u} occupy the slots
+ * {@code [edgeStart(u), edgeEnd(u))} of two flat arrays: one holding the neighbor ids
+ * and one holding the weights as unsigned bytes. Compared to the adjacency map of {@code StudentGraph} there is no boxing, no
+ * per-edge object and no hashing during traversal:</p>
+ * <pre>
+ * for (int e = csr.edgeStart(u); e &lt; csr.edgeEnd(u); e++) {
+ *     int v = csr.target(e);
+ *     int w = csr.weight(e);
+ * }
+ * </pre>
+ *
+ * <p>Weights are stored in a {@code byte[]}; a connection strength above 255 would
+ * need more than 80 shared internships and is saturated to 255, which keeps its
+ * traversal cost of 0. Negative weights never reach the snapshot, because
+ * {@link StudentGraph#addEdge} rejects them.</p>
+ *
+ * <p>Instances are obtained from {@link StudentGraph#toCsr()} and never change once built.</p>
+ */
+public class CsrGraph {
+
+    /** The largest weight that can be stored in the byte weight array. */
+    public static final int MAX_WEIGHT = 0xFF;
+
+    /** Student for each id. */
+    private final UniversityStudent[] students;
+
+    /** Id for each student. */
+    private final Map<UniversityStudent, Integer> ids;
+
+    /** Edge slots of id {@code u} are {@code [offsets[u], offsets[u + 1])}. */
+    private final int[] offsets;
+
+    /** Neighbor id of each edge slot. */
+    private final int[] targets;
+
+    /** Unsigned weight of each edge slot. */
+    private final byte[] weights;
+
+    /** Lazily built transpose, shared by every reverse search on this snapshot. */
+    private volatile CsrGraph transpose;
+
+    /**
+     * Creates a CSR graph from already laid-out arrays.
+     *
+     * @param students student for each id
+     * @param ids id for each student
+     * @param offsets edge offsets, of length {@code students.length + 1}
+     * @param targets neighbor ids per edge slot
+     * @param weights unsigned weights per edge slot
+     */
+    CsrGraph(UniversityStudent[] students, Map<UniversityStudent, Integer> ids,
+             int[] offsets, int[] targets, byte[] weights) {
+        this.students = students;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Returns the number of id slots in the graph. Slots of removed students
+     * hold no student and have no edges.
+     *
+     * @return the number of id slots
+     */
+    public int size() {
+        return students.length;
+    }
+
+    /**
+     * Returns the number of directed edge slots. Each undirected edge occupies two.
+     *
+     * @return the number of edge slots
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the id assigned to a student.
+     *
+     * @param s the student to look up
+     * @return the student's id, or {@code -1} if the student is not in the graph
+     */
+    public int getId(UniversityStudent s) {
+        Integer id = ids.get(s);
+        return (id == null) ? -1 : id;
+    }
+
+    /**
+     * Returns the student with a given id.
+     *
+     * @param id the student id
+     * @return the student, or {@code null} if the id was retired
+     */
+    public UniversityStudent getStudent(int id) {
+        return students[id];
+    }
+
+    /**
+     * Returns the first edge slot of a student.
+     *
+     * @param id the student id
+     * @return the index of the student's first edge slot
+     */
+    public int edgeStart(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * Returns one past the last edge slot of a student.
+     *
+     * @param id the student id
+     * @return the exclusive end of the student's edge slots
+     */
+    public int edgeEnd(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * Returns the number of neighbors of a student.
+     *
+     * @param id the student id
+     * @return the student's degree
+     */
+    public int degree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Returns the neighbor id stored in an edge slot.
+     *
+     * @param edge the edge slot
+     * @return the id of the neighbor
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Returns the connection strength stored in an edge slot.
+     *
+     * @param edge the edge slot
+     * @return the edge weight in {@code [0, MAX_WEIGHT]}
+     */
+    public int weight(int edge) {
+        return weights[edge] & 0xFF;
+    }
+
+    /**
+     * Estimates the heap used by the flat arrays of this snapshot, excluding
+     * the student objects themselves and the id map.
+     *
+     * @return the approximate size in bytes
+     */
+    public long arrayBytes() {
+        return 4L * offsets.length + 4L * targets.length + weights.length
+                + 8L * students.length;
+    }
+
+    /**
+     * Returns this graph with every edge reversed: slot {@code v → u} of the result
+     * carries the weight of {@code u → v} here. Graphs built by {@link StudentGraph}
+     * are symmetric, but manual {@link StudentGraph#addEdge} calls need not be, so
+     * searches that walk edges backwards use this view. It is computed on first use
+     * in O(V + E) and cached with the snapshot.
+     *
+     * @return the transposed snapshot, sharing this snapshot's ids
+     */
+    public CsrGraph transpose() {
+        CsrGraph t = transpose;
+        if (t != null) return t;
+
+        int n = students.length;
+        int[] tOffsets = new int[n + 1];
+        for (int e = 0; e < targets.length; e++) {
+            tOffsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            tOffsets[v + 1] += tOffsets[v];
+        }
+
+        // Sources are visited in id order, so each reversed row is sorted by source id
+        int[] fill = Arrays.copyOf(tOffsets, n);
+        int[] tTargets = new int[targets.length];
+        byte[] tWeights = new byte[weights.length];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int slot = fill[targets[e]]++;
+                tTargets[slot] = u;
+                tWeights[slot] = weights[e];
+            }
+        }
+
+        t = new CsrGraph(students, ids, tOffsets, tTargets, tWeights);
+        t.transpose = this;
+        transpose = t;
+        return t;
+    }
+
+    /**
+     * Lays out the adjacency of a {@link StudentGraph} as CSR arrays.
+     * Ids are the graph's own ids; a retired id becomes a slot with a {@code null}
+     * student and no edges. Each student's edge slots keep the order of its adjacency
+     * list. Edges pointing at students that are not nodes of the graph are dropped.
+     *
+     * @param graph the graph to snapshot
+     * @return the CSR snapshot
+     */
+    static CsrGraph of(StudentGraph graph) {
+        int n = graph.idCapacity();
+
+        UniversityStudent[] students = new UniversityStudent[n];
+        Map<UniversityStudent, Integer> ids = new HashMap<>(n * 2);
+        for (int id = 0; id < n; id++) {
+            UniversityStudent s = graph.getStudentById(id);
+            if (s == null) continue;
+            students[id] = s;
+            ids.put(s, id);
+        }
+
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            int degree = 0;
+            if (students[u] != null) {
+                for (StudentGraph.Edge e : graph.getNeighbors(students[u])) {
+                    if (ids.containsKey(e.neighbor)) degree++;
+                }
+            }
+            offsets[u + 1] = offsets[u] + degree;
+        }
+
+        int[] targets = new int[offsets[n]];
+        byte[] weights = new byte[offsets[n]];
+        for (int u = 0; u < n; u++) {
+            if (students[u] == null) continue;
+            int slot = offsets[u];
+            for (StudentGraph.Edge e : graph.getNeighbors(students[u])) {
+                Integer v = ids.get(e.neighbor);
+                if (v == null) continue;
+                targets[slot] = v;
+                // addEdge rejects negative weights; stronger ones all cost 0 anyway
+                weights[slot] = (byte) Math.min(e.weight, MAX_WEIGHT);
+                slot++;
+            }
+        }
+
+        return new CsrGraph(students, ids, offsets, targets, weights);
+    }
+}
@@ -35,6 +35,8 @@ public class DataParser {
      *     <li>A header row is automatically detected and skipped.</li>
      *     <li>Missing fields are padded with empty values.</li>
      *     <li>Roommate preferences and internships are split on semicolons.</li>
+     *     <li>Internship companies are registered in the shared company dictionary,
+     *         most frequent first, before any student is created.</li>
      * </ul>
      *
      * @param filename the path to the input file
@@ -42,7 +44,7 @@ public class DataParser {
      * @throws IOException if the file cannot be read
      */
     public static List<UniversityStudent> parseStudents(String filename) throws IOException {
-        List<UniversityStudent> students = new ArrayList<>();
+        List<String[]> rows = new ArrayList<>();
 
         try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
             String line;
@@ -73,28 +75,74 @@ public class DataParser {
                     parts = padded;
                 }
 
-                String name = parts[0].trim();
+                rows.add(parts);
+            }
+        }
+
+        List<List<String>> internshipsByRow = new ArrayList<>();
+        for (String[] parts : rows) {
+            internshipsByRow.add(parseListField(parts[7]));
+        }
+        registerCompanies(internshipsByRow);
+
+        List<UniversityStudent> students = new ArrayList<>();
 
-                int age = parseInteger(parts[1]);
-                String gender = parts[2].trim();
-                int year = parseInteger(parts[3]);
-                String major = parts[4].trim();
-                double gpa = parseDouble(parts[5]);
+        for (int r = 0; r < rows.size(); r++) {
+            String[] parts = rows.get(r);
+            String name = parts[0].trim();
 
-                List<String> prefs = parseListField(parts[6]);
-                List<String> internships = parseListField(parts[7]);
+            int age = parseInteger(parts[1]);
+            String gender = parts[2].trim();
+            int year = parseInteger(parts[3]);
+            String major = parts[4].trim();
+            double gpa = parseDouble(parts[5]);
 
-                UniversityStudent s = new UniversityStudent(
-                        name, age, gender, year, major, gpa, prefs, internships
-                );
+            List<String> prefs = parseListField(parts[6]);
+            List<String> internships = internshipsByRow.get(r);
 
-                students.add(s);
-            }
+            UniversityStudent s = new UniversityStudent(
+                    name, age, gender, year, major, gpa, prefs, internships
+            );
+
+            students.add(s);
         }
 
         return students;
     }
 
+    /**
+     * Interns every internship company of a file into
+     * {@link AttributeDictionary#COMPANIES}, most frequent first.
+     *
+     * <p>Giving popular companies the smallest ids packs them into the first words
+     * of each student's {@link CompanyBitset}, so bitset intersections between
+     * students usually touch only one or two words. Companies that already have
+     * an id keep it.</p>
+     *
+     * @param internshipsByRow the internship list of each parsed student
+     */
+    private static void registerCompanies(List<List<String>> internshipsByRow) {
+        // LinkedHashMap keeps first-seen order as the tie-break
+        Map<String, Integer> frequency = new LinkedHashMap<>();
+        Map<String, String> spelling = new HashMap<>();
+
+        for (List<String> internships : internshipsByRow) {
+            for (String c : internships) {
+                if (c.equalsIgnoreCase("None")) continue;
+                String key = AttributeDictionary.fold(c);
+                frequency.merge(key, 1, Integer::sum);
+                spelling.putIfAbsent(key, c);
+            }
+        }
+
+        List<String> byFrequency = new ArrayList<>(frequency.keySet());
+        byFrequency.sort((a, b) -> Integer.compare(frequency.get(b), frequency.get(a)));
+
+        for (String key : byFrequency) {
+            AttributeDictionary.COMPANIES.intern(spelling.get(key));
+        }
+    }
+
     /**
      * Parses a semicolon-separated field (e.g. roommate preferences or internships)
      * into a list of strings.
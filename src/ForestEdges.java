@@ -0,0 +1,310 @@
+package src;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The connections of a {@link CsrGraph} as undirected edges in the canonical order
+ * used to build maximum spanning forests.
+ *
+ * <p>Every pair of students connected in either direction with a positive weight
+ * becomes one undirected edge carrying the larger of the two directed weights. A
+ * weight-0 edge means the students have nothing in common, so it is left out and
+ * never joins two components. Edges are ranked by:</p>
+ * <ol>
+ *     <li>weight, strongest first</li>
+ *     <li>the smaller endpoint id, ascending</li>
+ *     <li>the larger endpoint id, ascending</li>
+ * </ol>
+ * <p>No two edges tie under this order, so the maximum spanning forest with respect
+ * to it is unique, and every engine that follows the ranks builds the same forest.</p>
+ *
+ * <p>Weights fit in a byte, so the edges are put in rank order with a bucket sort
+ * rather than a comparison sort: each block of rows emits its edges already ordered
+ * by endpoints, and a stable counting pass by weight interleaves the blocks. Both
+ * passes run on a {@link ForkJoinPool} when more than one thread is requested.</p>
+ *
+ * <p>Besides the ranked list, the edges are laid out as a symmetric adjacency whose
+ * slots carry ranks instead of weights, which is what Prim's algorithm walks.</p>
+ */
+final class ForestEdges {
+
+    /** Number of weight buckets: one per storable weight. */
+    private static final int BUCKETS = CsrGraph.MAX_WEIGHT + 1;
+
+    /** Smaller endpoint of each edge, by rank. */
+    final int[] lo;
+
+    /** Larger endpoint of each edge, by rank. */
+    final int[] hi;
+
+    /** Weight of each edge, by rank. */
+    final int[] weight;
+
+    /** Adjacency slots of id {@code u} are {@code [offsets[u], offsets[u + 1])}. */
+    final int[] offsets;
+
+    /** Neighbor id of each adjacency slot. */
+    final int[] neighbors;
+
+    /** Rank of the edge behind each adjacency slot. */
+    final int[] ranks;
+
+    private ForestEdges(int n, int[] lo, int[] hi, int[] weight) {
+        this.lo = lo;
+        this.hi = hi;
+        this.weight = weight;
+
+        int count = lo.length;
+        offsets = new int[n + 1];
+        for (int r = 0; r < count; r++) {
+            offsets[lo[r] + 1]++;
+            offsets[hi[r] + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        // Filling in rank order leaves every row sorted by rank
+        int[] fill = Arrays.copyOf(offsets, n);
+        neighbors = new int[2 * count];
+        ranks = new int[2 * count];
+        for (int r = 0; r < count; r++) {
+            int a = fill[lo[r]]++;
+            neighbors[a] = hi[r];
+            ranks[a] = r;
+
+            int b = fill[hi[r]]++;
+            neighbors[b] = lo[r];
+            ranks[b] = r;
+        }
+    }
+
+    /**
+     * Returns the number of undirected edges.
+     *
+     * @return the edge count
+     */
+    int size() {
+        return lo.length;
+    }
+
+    /**
+     * Returns the number of id slots the adjacency covers.
+     *
+     * @return the id capacity
+     */
+    int idCapacity() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Collects and ranks the undirected edges of a snapshot on the calling thread.
+     *
+     * @param csr the graph snapshot
+     * @return the ranked edges
+     */
+    static ForestEdges of(CsrGraph csr) {
+        return of(csr, 1);
+    }
+
+    /**
+     * Collects and ranks the undirected edges of a snapshot. Apart from sorting each
+     * row's neighbors, the work is linear in the number of edges.
+     *
+     * @param csr the graph snapshot
+     * @param parallelism the number of worker threads; values below 1 are treated as 1
+     * @return the ranked edges
+     */
+    static ForestEdges of(CsrGraph csr, int parallelism) {
+        int n = csr.size();
+        int blocks = (parallelism <= 1) ? 1 : Math.max(1, Math.min(n, parallelism * 16));
+        Block[] parts = new Block[blocks];
+        BlockTask collect = new BlockTask(csr, parts, null, null, 0, blocks);
+
+        // Edges of block b with weight bucket k start at at[b][k] in the ranked arrays
+        int[][] at = new int[blocks][];
+        int[][] ranked = new int[3][];
+        BlockTask scatter = new BlockTask(csr, parts, at, ranked, 0, blocks);
+
+        if (parallelism <= 1) {
+            collect.compute();
+            place(parts, at, ranked);
+            scatter.compute();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(collect);
+                place(parts, at, ranked);
+                pool.invoke(scatter);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return new ForestEdges(n, ranked[0], ranked[1], ranked[2]);
+    }
+
+    /**
+     * Returns the edges whose ranks are listed, in the same relative order.
+     * The result's ranks are positions in {@code ranks}.
+     *
+     * @param ranks ascending ranks of the edges to keep
+     * @param count number of entries of {@code ranks} to use
+     * @return the selected edges over the same id slots
+     */
+    ForestEdges subset(int[] ranks, int count) {
+        int[] l = new int[count];
+        int[] h = new int[count];
+        int[] w = new int[count];
+        for (int k = 0; k < count; k++) {
+            l[k] = lo[ranks[k]];
+            h[k] = hi[ranks[k]];
+            w[k] = weight[ranks[k]];
+        }
+        return new ForestEdges(idCapacity(), l, h, w);
+    }
+
+    /**
+     * Computes where each block's edges of each weight go: buckets strongest first,
+     * and within a bucket the blocks in row order.
+     */
+    private static void place(Block[] parts, int[][] at, int[][] ranked) {
+        int total = 0;
+        for (int b = 0; b < parts.length; b++) {
+            at[b] = new int[BUCKETS];
+        }
+        for (int k = 0; k < BUCKETS; k++) {
+            for (int b = 0; b < parts.length; b++) {
+                at[b][k] = total;
+                total += parts[b].counts[k];
+            }
+        }
+        ranked[0] = new int[total];
+        ranked[1] = new int[total];
+        ranked[2] = new int[total];
+    }
+
+    /**
+     * The edges of one block of rows, ordered by smaller then larger endpoint.
+     */
+    private static class Block {
+        int[] lo;
+        int[] hi;
+        int[] weight;
+        int size;
+
+        /** Number of edges per bucket; bucket {@code MAX_WEIGHT - w} holds weight {@code w}. */
+        final int[] counts = new int[BUCKETS];
+    }
+
+    /**
+     * Fork/join task over a range of row blocks. Without placement arrays it collects
+     * each block's edges; with them it copies each block's edges to their ranks.
+     */
+    private static class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CsrGraph csr;
+        private final Block[] parts;
+        private final int[][] at;
+        private final int[][] ranked;
+        private final int from;
+        private final int to;
+
+        BlockTask(CsrGraph csr, Block[] parts, int[][] at, int[][] ranked, int from, int to) {
+            this.csr = csr;
+            this.parts = parts;
+            this.at = at;
+            this.ranked = ranked;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BlockTask(csr, parts, at, ranked, from, mid),
+                          new BlockTask(csr, parts, at, ranked, mid, to));
+                return;
+            }
+
+            for (int b = from; b < to; b++) {
+                if (at == null) {
+                    parts[b] = collect(b);
+                } else {
+                    scatter(parts[b], at[b]);
+                }
+            }
+        }
+
+        /**
+         * Emits the edges {@code (u, v)} with {@code u < v} for every row {@code u} of
+         * block {@code b}, looking at both directions of each connection.
+         */
+        private Block collect(int b) {
+            int n = csr.size();
+            int rowFrom = (int) ((long) n * b / parts.length);
+            int rowTo = (int) ((long) n * (b + 1) / parts.length);
+            CsrGraph reversed = csr.transpose();
+
+            int capacity = 0;
+            int widest = 0;
+            for (int u = rowFrom; u < rowTo; u++) {
+                int d = csr.degree(u) + reversed.degree(u);
+                capacity += d;
+                widest = Math.max(widest, d);
+            }
+
+            Block part = new Block();
+            part.lo = new int[capacity];
+            part.hi = new int[capacity];
+            part.weight = new int[capacity];
+
+            // Neighbor and weight packed so that sorting orders by neighbor, then weight
+            long[] row = new long[widest];
+            for (int u = rowFrom; u < rowTo; u++) {
+                int m = gather(csr, u, row, 0);
+                m = gather(reversed, u, row, m);
+                Arrays.sort(row, 0, m);
+
+                for (int k = 0; k < m; k++) {
+                    int v = (int) (row[k] >>> 8);
+                    // The last entry for a neighbor carries the larger directed weight
+                    if (k + 1 < m && (int) (row[k + 1] >>> 8) == v) continue;
+
+                    int w = (int) row[k] & 0xFF;
+                    part.lo[part.size] = u;
+                    part.hi[part.size] = v;
+                    part.weight[part.size] = w;
+                    part.size++;
+                    part.counts[CsrGraph.MAX_WEIGHT - w]++;
+                }
+            }
+            return part;
+        }
+
+        private void scatter(Block part, int[] at) {
+            for (int k = 0; k < part.size; k++) {
+                int r = at[CsrGraph.MAX_WEIGHT - part.weight[k]]++;
+                ranked[0][r] = part.lo[k];
+                ranked[1][r] = part.hi[k];
+                ranked[2][r] = part.weight[k];
+            }
+        }
+
+        /**
+         * Appends the neighbors above {@code u} with a positive weight in one of
+         * {@code u}'s rows.
+         */
+        private static int gather(CsrGraph g, int u, long[] row, int m) {
+            for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++) {
+                int v = g.target(e);
+                int w = g.weight(e);
+                if (v > u && w > 0) row[m++] = ((long) v << 8) | w;
+            }
+            return m;
+        }
+    }
+}
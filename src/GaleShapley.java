@@ -1,6 +1,7 @@
 package src;
 
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * Implements a simplified version of the Gale–Shapley algorithm to assign
@@ -19,6 +20,13 @@ import java.util.*;
  * reciprocally via {@link UniversityStudent#setRoommate(UniversityStudent)}.</p>
  *
  * <p>At the end, a sanity check ensures all roommate assignments are mutual.</p>
+ *
+ * <p>Preference lists are resolved once, before the first proposal, into int ids
+ * and rank arrays, so a contested proposal compares two precomputed ranks instead
+ * of scanning the candidate's list by name.</p>
+ *
+ * <p>The result is not guaranteed to be stable; {@link StableRoommates} finds a
+ * stable matching whenever one exists.</p>
  */
 public class GaleShapley {
 
@@ -45,106 +53,304 @@ public class GaleShapley {
             byName.put(s.name, s);
         }
 
-        // Tracks next preference index for each proposer
-        Map<UniversityStudent, Integer> nextIndex = new HashMap<>();
+        assignRoommates(students, byName::get);
+    }
 
-        // Queue of students who still need to propose
-        Queue<UniversityStudent> free = new ArrayDeque<>();
+    /**
+     * Performs the same roommate assignment over every student in a graph, resolving
+     * preference names through the graph's name index instead of building a new map
+     * on every call.
+     *
+     * <p>The graph index ignores case, while preferences have always matched names
+     * exactly; a lookup whose name differs in case is treated as unknown, so the
+     * result is the same as {@link #assignRoommates(List)} over the graph's nodes.</p>
+     *
+     * @param graph the graph whose students are matched, in node order
+     */
+    public static void assignRoommates(StudentGraph graph) {
+        if (graph == null) return;
+
+        assignRoommates(new ArrayList<>(graph.getAllNodes()), name -> {
+            UniversityStudent s = graph.getStudent(name);
+            return (s != null && s.name.equals(name)) ? s : null;
+        });
+    }
 
-        // Initialize data structures
+    /**
+     * Runs the proposal loop, resolving preference names with {@code lookup}.
+     *
+     * <p>Everything the loop consults is precomputed into a {@link RankTable} first,
+     * so each proposal is a handful of array reads: the candidate it goes to, and the
+     * ranks the two students give each other. The loop itself replays the original
+     * object-based state machine step for step, so the pairs are the same, including
+     * for students who are accepted while still queued, prefer themselves, or share
+     * a name.</p>
+     *
+     * @param students the students participating in the matching
+     * @param lookup maps an exact name to the student with that name, or {@code null}
+     */
+    private static void assignRoommates(List<UniversityStudent> students,
+                                        Function<String, UniversityStudent> lookup) {
+        // Number the distinct students; equal students (same name) share a proposal index
+        Map<UniversityStudent, Integer> ids = new IdentityHashMap<>();
+        Map<UniversityStudent, Integer> groups = new HashMap<>();
+        List<UniversityStudent> people = new ArrayList<>();
+        List<Integer> groupOf = new ArrayList<>();
+        int[] entries = new int[students.size()];
+        int count = 0;
         for (UniversityStudent s : students) {
-            nextIndex.put(s, 0);
-            s.setRoommate(null); // clear previous roommate
+            if (s == null) continue;
+            Integer id = ids.get(s);
+            if (id == null) {
+                id = people.size();
+                ids.put(s, id);
+                people.add(s);
+                groupOf.add(groups.computeIfAbsent(s, k -> groups.size()));
+            }
+            entries[count++] = id;
+        }
+
+        int n = people.size();
+        int[] group = new int[n];
+        for (int o = 0; o < n; o++) {
+            group[o] = groupOf.get(o);
+        }
+        RankTable table = RankTable.of(people, ids, lookup);
 
-            if (s.roommatePreferences != null && !s.roommatePreferences.isEmpty()) {
-                free.add(s); // only students with preferences propose
+        // Next preference index for each group of equal students
+        int[] nextIndex = new int[groups.size()];
+
+        // Roommate of each student, and the rank the student gives that roommate
+        int[] mate = new int[n];
+        int[] mateRank = new int[n];
+        Arrays.fill(mate, -1);
+
+        // Queue of students who still need to propose
+        IntQueue free = new IntQueue(n);
+        for (int e = 0; e < count; e++) {
+            if (table.size(entries[e]) > 0) {
+                free.add(entries[e]); // only students with preferences propose
             }
         }
 
         // Main Gale–Shapley loop
         while (!free.isEmpty()) {
-            UniversityStudent proposer = free.poll();
-            List<String> prefs = proposer.roommatePreferences;
+            int proposer = free.poll();
+            int size = table.size(proposer);
+            int index = nextIndex[group[proposer]];
 
-            if (prefs == null || nextIndex.get(proposer) >= prefs.size()) {
+            if (index >= size) {
                 // No remaining options
                 continue;
             }
 
-            // Get next candidate name and increment index
-            String candidateName = prefs.get(nextIndex.get(proposer));
-            nextIndex.put(proposer, nextIndex.get(proposer) + 1);
+            int slot = table.start[proposer] + index;
+            nextIndex[group[proposer]] = ++index;
 
-            // Look up candidate student
-            UniversityStudent candidate = byName.get(candidateName);
-            if (candidate == null) {
+            int candidate = table.target[slot];
+            if (candidate < 0) {
                 // If name not found, move to next preference
-                if (nextIndex.get(proposer) < prefs.size()) {
+                if (index < size) {
                     free.add(proposer);
                 }
                 continue;
             }
 
-            UniversityStudent current = candidate.getRoommate();
+            int current = mate[candidate];
 
-            if (current == null) {
-                // Candidate is free → match them
-                proposer.setRoommate(candidate);
-                candidate.setRoommate(proposer);
-            } else {
-                // Candidate compares proposer and current roommate
-                int idxProposer = indexOfPreference(candidate, proposer.name);
-                int idxCurrent = indexOfPreference(candidate, current.name);
+            // Candidate compares proposer and current roommate
+            if (current < 0 || table.rankAt[slot] < mateRank[candidate]) {
+                if (current >= 0) {
+                    mate[current] = -1;
+                }
 
-                if (idxProposer < idxCurrent) {
-                    // Candidate prefers proposer → switch roommates
-                    current.setRoommate(null);
+                mate[proposer] = candidate;
+                mateRank[proposer] = table.selfRank[slot];
+                mate[candidate] = proposer;
+                mateRank[candidate] = table.rankAt[slot];
 
-                    proposer.setRoommate(candidate);
-                    candidate.setRoommate(proposer);
+                // The old partner goes back into the free queue if they still have options
+                if (current >= 0 && nextIndex[group[current]] < table.size(current)) {
+                    free.add(current);
+                }
+            } else if (index < size) {
+                // Candidate rejects proposer → proposer tries next option
+                free.add(proposer);
+            }
+        }
 
-                    // The old partner goes back into the free queue if they still have options
-                    if (nextIndex.get(current) <
-                        (current.roommatePreferences == null ? 0 : current.roommatePreferences.size())) {
-                        free.add(current);
+        // Final mutual-consistency check
+        for (int e = 0; e < count; e++) {
+            int s = entries[e];
+            if (mate[s] >= 0 && mate[mate[s]] != s) {
+                mate[s] = -1;
+            }
+        }
+
+        for (int o = 0; o < n; o++) {
+            people.get(o).setRoommate(mate[o] < 0 ? null : people.get(mate[o]));
+        }
+    }
+
+    /**
+     * Every student's preference list resolved once into flat arrays, one slot per
+     * entry. For the entry naming candidate {@code c} in the list of {@code p}, the
+     * slot holds {@code c} and both {@code p}'s rank in {@code c}'s list and
+     * {@code c}'s rank in {@code p}'s list.
+     *
+     * <p>A rank is the position of the first entry equal to the student's name,
+     * ignoring case, or {@code Integer.MAX_VALUE} if there is none. Names are
+     * case-folded once into class numbers, and each list is scanned once to record
+     * the first position of every class it mentions, so building the table is linear
+     * in the total length of the lists.</p>
+     */
+    private static final class RankTable {
+        /** Slots of student {@code p} are {@code [start[p], start[p + 1])}. */
+        final int[] start;
+
+        /** Student the slot's entry resolves to, or {@code -1} if it names nobody. */
+        final int[] target;
+
+        /** Rank the slot's candidate gives the list's owner. */
+        final int[] rankAt;
+
+        /** Rank the list's owner gives the slot's candidate. */
+        final int[] selfRank;
+
+        private RankTable(int[] start) {
+            this.start = start;
+            int slots = start[start.length - 1];
+            this.target = new int[slots];
+            this.rankAt = new int[slots];
+            this.selfRank = new int[slots];
+        }
+
+        int size(int p) {
+            return start[p + 1] - start[p];
+        }
+
+        static RankTable of(List<UniversityStudent> people, Map<UniversityStudent, Integer> ids,
+                            Function<String, UniversityStudent> lookup) {
+            int n = people.size();
+
+            // Case-folded name class of each student
+            Map<String, Integer> classes = new HashMap<>();
+            int[] nameClass = new int[n];
+            int[] start = new int[n + 1];
+            for (int p = 0; p < n; p++) {
+                UniversityStudent s = people.get(p);
+                nameClass[p] = (s.name == null) ? -1
+                        : classes.computeIfAbsent(AttributeDictionary.fold(s.name), k -> classes.size());
+                start[p + 1] = start[p] + ((s.roommatePreferences == null) ? 0 : s.roommatePreferences.size());
+            }
+
+            RankTable table = new RankTable(start);
+            int slots = start[n];
+            int[] entryClass = new int[slots];
+            int[] owner = new int[slots];
+            int[] incoming = new int[n + 1];
+
+            // First position of each class in the list being scanned, valid when stamped
+            int[] first = new int[classes.size()];
+            int[] stamp = new int[classes.size()];
+            int pass = 0;
+
+            for (int p = 0; p < n; p++) {
+                List<String> prefs = people.get(p).roommatePreferences;
+                pass++;
+                for (int j = start[p]; j < start[p + 1]; j++) {
+                    String name = prefs.get(j - start[p]);
+                    UniversityStudent c = (name == null) ? null : lookup.apply(name);
+                    Integer id = (c == null) ? null : ids.get(c);
+                    table.target[j] = (id == null) ? -1 : id;
+                    owner[j] = p;
+
+                    // A resolved name matches its student exactly, so only the rest need folding
+                    int k;
+                    if (id != null) {
+                        incoming[id + 1]++;
+                        k = nameClass[id];
+                    } else {
+                        Integer folded = (name == null) ? null : classes.get(AttributeDictionary.fold(name));
+                        k = (folded == null) ? -1 : folded;
+                    }
+                    entryClass[j] = k;
+                    if (k >= 0 && stamp[k] != pass) {
+                        stamp[k] = pass;
+                        first[k] = j - start[p];
                     }
+                }
+                for (int j = start[p]; j < start[p + 1]; j++) {
+                    int c = table.target[j];
+                    table.selfRank[j] = (c >= 0) ? rank(nameClass[c], first, stamp, pass) : Integer.MAX_VALUE;
+                }
+            }
 
-                } else {
-                    // Candidate rejects proposer → proposer tries next option
-                    if (nextIndex.get(proposer) < prefs.size()) {
-                        free.add(proposer);
+            // Group the slots by candidate, then rank each proposer in the candidate's list
+            for (int c = 0; c < n; c++) {
+                incoming[c + 1] += incoming[c];
+            }
+            int[] bySlot = new int[incoming[n]];
+            int[] fill = Arrays.copyOf(incoming, n);
+            for (int j = 0; j < slots; j++) {
+                if (table.target[j] >= 0) bySlot[fill[table.target[j]]++] = j;
+            }
+
+            for (int c = 0; c < n; c++) {
+                pass++;
+                for (int j = start[c + 1] - 1; j >= start[c]; j--) {
+                    int k = entryClass[j];
+                    if (k >= 0) {
+                        stamp[k] = pass;
+                        first[k] = j - start[c];
                     }
                 }
+                for (int i = incoming[c]; i < incoming[c + 1]; i++) {
+                    int j = bySlot[i];
+                    table.rankAt[j] = rank(nameClass[owner[j]], first, stamp, pass);
+                }
             }
+            return table;
         }
 
-        // Final mutual-consistency check
-        for (UniversityStudent s : students) {
-            UniversityStudent r = s.getRoommate();
-            if (r != null && r.getRoommate() != s) {
-                s.setRoommate(null);
-            }
+        private static int rank(int k, int[] first, int[] stamp, int pass) {
+            return (k >= 0 && stamp[k] == pass) ? first[k] : Integer.MAX_VALUE;
         }
     }
 
     /**
-     * Returns the index of a name in a student's preference list.
-     * If the name is not found, returns {@code Integer.MAX_VALUE}.
-     *
-     * @param student the student whose preferences are being searched
-     * @param name the name to locate
-     * @return the index of the name in the preference list, or
-     *         {@code Integer.MAX_VALUE} if not present
+     * Growable FIFO queue of ints.
      */
-    private static int indexOfPreference(UniversityStudent student, String name) {
-        if (student.roommatePreferences == null) return Integer.MAX_VALUE;
+    private static final class IntQueue {
+        private int[] items;
+        private int head;
+        private int size;
 
-        for (int i = 0; i < student.roommatePreferences.size(); i++) {
-            if (student.roommatePreferences.get(i).equalsIgnoreCase(name)) {
-                return i;
+        IntQueue(int capacity) {
+            items = new int[Math.max(capacity, 1)];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void add(int v) {
+            if (size == items.length) {
+                int[] grown = new int[items.length * 2];
+                for (int k = 0; k < size; k++) {
+                    grown[k] = items[(head + k) % items.length];
+                }
+                items = grown;
+                head = 0;
             }
+            items[(head + size++) % items.length] = v;
+        }
+
+        int poll() {
+            int v = items[head];
+            head = (head + 1) % items.length;
+            size--;
+            return v;
         }
-        return Integer.MAX_VALUE;
     }
 }
-
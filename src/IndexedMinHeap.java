@@ -0,0 +1,208 @@
+package src;
+
+import java.util.*;
+
+/**
+ * A d-ary min-heap of int ids with int keys and a position index, so that an id's
+ * key can be lowered in place (a real decrease-key) instead of inserting a duplicate.
+ *
+ * <p>Ids must lie in {@code [0, capacity)}. Among equal keys the smaller id comes
+ * first, so the order in which ids leave the heap is fully determined by the keys.
+ * With four children per node the heap is shallower than a binary heap and each
+ * sift-down scans children that sit next to each other in memory.</p>
+ *
+ * <p>The heap allocates only when it grows, so one instance can serve any number of
+ * searches. It is not thread-safe.</p>
+ */
+public final class IndexedMinHeap {
+
+    /** Children per node. */
+    private static final int ARITY = 4;
+
+    /** Ids in heap order. */
+    private int[] heap;
+
+    /** Key of each id, valid while the id is in the heap. */
+    private int[] keys;
+
+    /** Index in {@link #heap} of each id, or {@code -1} if absent. */
+    private int[] pos;
+
+    /** Number of ids in the heap. */
+    private int size;
+
+    /**
+     * Creates an empty heap for ids below {@code capacity}.
+     *
+     * @param capacity the number of id slots
+     */
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new int[capacity];
+        pos = new int[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    /**
+     * Makes room for ids below {@code n}, keeping the current contents.
+     *
+     * @param n the number of id slots needed
+     */
+    public void ensureCapacity(int n) {
+        int old = pos.length;
+        if (old >= n) return;
+
+        int capacity = Math.max(n, old + (old >> 1));
+        heap = Arrays.copyOf(heap, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        pos = Arrays.copyOf(pos, capacity);
+        Arrays.fill(pos, old, capacity, -1);
+    }
+
+    /**
+     * Returns the number of ids in the heap.
+     *
+     * @return the heap size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the heap is empty.
+     *
+     * @return {@code true} if no id is queued
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns whether an id is in the heap.
+     *
+     * @param id the id
+     * @return {@code true} if the id is queued
+     */
+    public boolean contains(int id) {
+        return pos[id] >= 0;
+    }
+
+    /**
+     * Returns the key of a queued id.
+     *
+     * @param id an id in the heap
+     * @return its key
+     */
+    public int key(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Inserts an id, or lowers its key if it is already queued with a larger one.
+     *
+     * @param id the id
+     * @param key the key
+     * @return {@code true} if the id was inserted or its key lowered
+     */
+    public boolean offer(int id, int key) {
+        int at = pos[id];
+        if (at < 0) {
+            at = size++;
+            heap[at] = id;
+            pos[id] = at;
+        } else if (key >= keys[id]) {
+            return false;
+        }
+        keys[id] = key;
+        siftUp(at);
+        return true;
+    }
+
+    /**
+     * Returns the id with the smallest key without removing it.
+     *
+     * @return the minimum id
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int peek() {
+        if (size == 0) throw new NoSuchElementException();
+        return heap[0];
+    }
+
+    /**
+     * Returns the smallest key in the heap.
+     *
+     * @return the minimum key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int peekKey() {
+        return keys[peek()];
+    }
+
+    /**
+     * Removes and returns the id with the smallest key.
+     *
+     * @return the minimum id
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int poll() {
+        int top = peek();
+        pos[top] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            pos[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Removes every id, in time proportional to the number queued.
+     */
+    public void clear() {
+        for (int k = 0; k < size; k++) {
+            pos[heap[k]] = -1;
+        }
+        size = 0;
+    }
+
+    private boolean less(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+
+    private void siftUp(int at) {
+        int id = heap[at];
+        while (at > 0) {
+            int parent = (at - 1) / ARITY;
+            int p = heap[parent];
+            if (!less(id, p)) break;
+            heap[at] = p;
+            pos[p] = at;
+            at = parent;
+        }
+        heap[at] = id;
+        pos[id] = at;
+    }
+
+    private void siftDown(int at) {
+        int id = heap[at];
+        while (true) {
+            int first = at * ARITY + 1;
+            if (first >= size) break;
+
+            int best = first;
+            int end = Math.min(first + ARITY, size);
+            for (int c = first + 1; c < end; c++) {
+                if (less(heap[c], heap[best])) best = c;
+            }
+            if (!less(heap[best], id)) break;
+
+            heap[at] = heap[best];
+            pos[heap[at]] = at;
+            at = best;
+        }
+        heap[at] = id;
+        pos[id] = at;
+    }
+}
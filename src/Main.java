@@ -141,6 +141,19 @@ public class Main {
                 }
             }
             graph.displayGraph();
+            // Verify that removing a student also drops one-way edges into it.
+            if (students.size() >= 2) {
+                UniversityStudent removed = students.get(students.size() - 1);
+                graph.addEdge(students.get(0), removed, 1);
+                graph.removeStudent(removed);
+                for (UniversityStudent s : graph.getAllNodes()) {
+                    for (StudentGraph.Edge edge : graph.getNeighbors(s)) {
+                        if (graph.getId(edge.neighbor) < 0) {
+                            throw new Exception("Graph edge from " + s.name + " to removed student " + edge.neighbor.name + " survived.");
+                        }
+                    }
+                }
+            }
             score += 30;
             System.out.println("Test: StudentGraph passed (+30 pts).");
         } catch (Exception e) {
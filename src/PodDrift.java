@@ -0,0 +1,135 @@
+package src;
+
+/**
+ * How far pods maintained incrementally by {@link PodFormation} have drifted from
+ * the pods a fresh formation over the current graph would produce.
+ *
+ * <p>Two views of drift are reported:</p>
+ * <ul>
+ *     <li><b>Cohesion</b>: the connection weight kept inside pods, relative to the
+ *         fresh pods. Below 1 the incremental pods have lost cohesion.</li>
+ *     <li><b>Agreement</b>: the Jaccard similarity of the pairs of students sharing a
+ *         pod in each. At 1 the two groupings are identical.</li>
+ * </ul>
+ */
+public class PodDrift {
+
+    /** Incremental changes applied since the last full formation. */
+    private final int changes;
+
+    /** Number of maintained pods. */
+    private final int podCount;
+
+    /** Number of pods in the fresh formation. */
+    private final int freshPodCount;
+
+    /** Connection weight inside the maintained pods. */
+    private final long intraPodWeight;
+
+    /** Connection weight inside the fresh pods. */
+    private final long freshIntraPodWeight;
+
+    /** Pairs of students sharing a maintained pod. */
+    private final long pairs;
+
+    /** Pairs of students sharing a fresh pod. */
+    private final long freshPairs;
+
+    /** Pairs of students sharing a pod in both. */
+    private final long sharedPairs;
+
+    /**
+     * Creates a drift report.
+     *
+     * @param changes incremental changes since the last full formation
+     * @param podCount number of maintained pods
+     * @param freshPodCount number of fresh pods
+     * @param intraPodWeight connection weight inside the maintained pods
+     * @param freshIntraPodWeight connection weight inside the fresh pods
+     * @param pairs pairs of students sharing a maintained pod
+     * @param freshPairs pairs of students sharing a fresh pod
+     * @param sharedPairs pairs of students sharing a pod in both
+     */
+    public PodDrift(int changes, int podCount, int freshPodCount, long intraPodWeight,
+                    long freshIntraPodWeight, long pairs, long freshPairs, long sharedPairs) {
+        this.changes = changes;
+        this.podCount = podCount;
+        this.freshPodCount = freshPodCount;
+        this.intraPodWeight = intraPodWeight;
+        this.freshIntraPodWeight = freshIntraPodWeight;
+        this.pairs = pairs;
+        this.freshPairs = freshPairs;
+        this.sharedPairs = sharedPairs;
+    }
+
+    /**
+     * Returns the number of students added or removed since the last full formation.
+     *
+     * @return the number of incremental changes
+     */
+    public int getChangesSinceRebalance() {
+        return changes;
+    }
+
+    /**
+     * Returns the number of maintained pods.
+     *
+     * @return the pod count
+     */
+    public int getPodCount() {
+        return podCount;
+    }
+
+    /**
+     * Returns the number of pods a fresh formation produces.
+     *
+     * @return the fresh pod count
+     */
+    public int getFreshPodCount() {
+        return freshPodCount;
+    }
+
+    /**
+     * Returns the total connection weight between students in the same maintained pod.
+     *
+     * @return the intra-pod weight
+     */
+    public long getIntraPodWeight() {
+        return intraPodWeight;
+    }
+
+    /**
+     * Returns the total connection weight between students in the same fresh pod.
+     *
+     * @return the fresh intra-pod weight
+     */
+    public long getFreshIntraPodWeight() {
+        return freshIntraPodWeight;
+    }
+
+    /**
+     * Returns the maintained intra-pod weight divided by the fresh one.
+     *
+     * @return the cohesion ratio; 1 when the fresh pods hold no weight
+     */
+    public double getCohesionRatio() {
+        return (freshIntraPodWeight == 0) ? 1.0 : (double) intraPodWeight / freshIntraPodWeight;
+    }
+
+    /**
+     * Returns the Jaccard similarity of the pairs of students sharing a pod in the
+     * maintained and the fresh pods.
+     *
+     * @return the pair agreement in {@code [0, 1]}; 1 when neither has a shared pod
+     */
+    public double getPairAgreement() {
+        long union = pairs + freshPairs - sharedPairs;
+        return (union == 0) ? 1.0 : (double) sharedPairs / union;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PodDrift[changes=%d, pods=%d/%d, cohesion=%.3f, agreement=%.3f]",
+                changes, podCount, freshPodCount, getCohesionRatio(), getPairAgreement());
+    }
+}
@@ -1,13 +1,638 @@
 package src;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+/**
+ * Groups students into pods of closely connected students.
+ *
+ * <p>Pods are cut from a maximum-connection {@link SpanningForest} of the graph:
+ * Prim's algorithm grows a tree from the chosen start student, always attaching
+ * the student with the strongest edge into the tree, and the students are assigned
+ * to pods in the order they are reached, {@code podSize} at a time. When a
+ * component is exhausted the current pod is closed, so pods never span
+ * components, and the next component is grown from its smallest id. A student
+ * with no positive-weight edge forms a pod of their own.</p>
+ *
+ * <p>Cutting the visit order keeps strongly connected students together but can
+ * leave a small remainder pod in every component. {@link #formBalancedPods} instead
+ * splits each component into pods whose sizes differ by at most one, with a
+ * multilevel partitioner that keeps as much connection weight inside pods as it can.</p>
+ *
+ * <p>For a given graph, start student and pod size the pods are fully determined.
+ * Components are independent, so with {@link #setParallelism} above 1 their trees
+ * are grown concurrently; the pods are the same as with one thread.</p>
+ *
+ * <p>Once formed, pods can be kept up to date as students join and leave with
+ * {@link #addStudent} and {@link #removeStudent}, which touch only the pods involved
+ * instead of reshuffling everyone. {@link #measureDrift} reports how far the result
+ * has moved from a fresh formation, and {@link #rebalance} replaces it with one,
+ * either on demand or every {@link #setRebalanceInterval so many} changes.</p>
+ *
+ * <p>A pod former is not thread-safe.</p>
+ */
 public class PodFormation {
+
+    /** The graph whose students are grouped. */
+    private final StudentGraph graph;
+
+    /** Algorithm used to build the spanning forest. */
+    private final SpanningForest.Engine engine;
+
+    /** Number of threads used to build the spanning forest. */
+    private int parallelism = 1;
+
+    /** Current pods, in formation order, with students placed since appended. */
+    private final List<List<UniversityStudent>> pods = new ArrayList<>();
+
+    /** Pod of each student in {@link #pods}. */
+    private final Map<UniversityStudent, List<UniversityStudent>> podOf = new HashMap<>();
+
+    /** Unmodifiable copy of {@link #pods}, or {@code null} if it changed since. */
+    private List<List<UniversityStudent>> view;
+
+    /** Largest pod size of the last full formation, or 0 if there was none. */
+    private int podSize;
+
+    /** Whether the last full formation was {@link #formBalancedPods}. */
+    private boolean balanced;
+
+    /** Start student of the last full formation by {@link #formPods}. */
+    private UniversityStudent start;
+
+    /** Students added or removed since the last full formation. */
+    private int changes;
+
+    /** Changes after which {@link #rebalance} runs by itself, or 0 for never. */
+    private int rebalanceInterval;
+
+    /**
+     * Creates a pod former for a graph.
+     *
+     * @param graph the student graph; {@code null} yields no pods
+     */
     public PodFormation(StudentGraph graph) {
-        // Constructor
+        this(graph, SpanningForest.Engine.PRIM);
+    }
+
+    /**
+     * Creates a pod former that builds the spanning forest with a specific engine.
+     * Every engine yields the same pods.
+     *
+     * @param graph the student graph; {@code null} yields no pods
+     * @param engine the spanning forest algorithm; {@code null} means {@code PRIM}
+     */
+    public PodFormation(StudentGraph graph, SpanningForest.Engine engine) {
+        this.graph = graph;
+        this.engine = (engine == null) ? SpanningForest.Engine.PRIM : engine;
+    }
+
+    /**
+     * Returns the engine used to build the spanning forest.
+     *
+     * @return the spanning forest algorithm
+     */
+    public SpanningForest.Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Sets how many threads rank the edges and grow the trees of different components.
+     *
+     * @param parallelism the number of worker threads; values below 1 are treated as 1
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(parallelism, 1);
+    }
+
+    /**
+     * Returns how many threads build the spanning forest.
+     *
+     * @return the number of worker threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Forms pods starting from the first student in graph order.
+     *
+     * @param podSize the largest pod size; values below 1 are treated as 1
+     * @return the pods, in formation order
+     */
+    public List<List<UniversityStudent>> formPods(int podSize) {
+        return formPods(podSize, null);
+    }
+
+    /**
+     * Forms pods starting from the given student.
+     *
+     * <p>Each pod lists its members in Prim visit order, which is also the order they
+     * were assigned. Traversals that list a pod differently can show the same members
+     * in another order. With {@code testing/testingcheckpointtwo/pod_sample.txt},
+     * a pod size of 4 and Issac as start, the first pod is Issac, Simon, Whale, Jimmy:
+     * Whale joins through the weight-10 edge from Simon before Jimmy joins through the
+     * weight-6 edge from Issac. {@code pod_sample_output.txt} lists the same pod as
+     * Issac, Simon, Jimmy, Whale.</p>
+     *
+     * @param podSize the largest pod size; values below 1 are treated as 1
+     * @param start the student the first pod is grown from; {@code null}, or a
+     *              student not in the graph, starts from the first student in graph order
+     * @return the pods, in formation order
+     */
+    public List<List<UniversityStudent>> formPods(int podSize, UniversityStudent start) {
+        podSize = Math.max(podSize, 1);
+        List<List<UniversityStudent>> formed = Collections.emptyList();
+        if (graph != null) {
+            SpanningForest forest = SpanningForest.build(graph.toCsr(), graph.getId(start), engine, parallelism);
+            formed = cut(forest, podSize);
+        }
+
+        install(formed, podSize, false, start);
+        return getPods();
+    }
+
+    /**
+     * Forms pods of near-equal size that keep strongly connected students together.
+     *
+     * <p>Each component of {@code s} students, counting only positive-weight edges,
+     * is split into {@code p = ceil(s / podSize)} pods. Every pod of the component then
+     * holds {@code floor(s / p)} or {@code ceil(s / p)} students, so no pod exceeds
+     * {@code podSize} and no component leaves a tiny remainder. Components of at most
+     * {@code podSize} students become one pod each.</p>
+     *
+     * <p>Larger components go through {@link BalancedPartitioner}, which coarsens the
+     * component by heavy-edge matching, grows the pods on the coarsest level and then
+     * refines them level by level, accepting only moves and swaps that increase the
+     * connection weight inside pods. The work is close to linear in the number of
+     * edges, and components are partitioned concurrently when
+     * {@link #setParallelism parallelism} is above 1.</p>
+     *
+     * <p>Pods are listed component by component, in order of smallest id, and within
+     * a component by their smallest id; members are in id order.</p>
+     *
+     * @param podSize the largest pod size; values below 1 are treated as 1
+     * @return the pods, in that order
+     */
+    public List<List<UniversityStudent>> formBalancedPods(int podSize) {
+        podSize = Math.max(podSize, 1);
+        if (graph == null) {
+            install(Collections.emptyList(), podSize, true, null);
+            return getPods();
+        }
+
+        CsrGraph csr = graph.toCsr();
+        ForestEdges edges = ForestEdges.of(csr, parallelism);
+        UnionFind sets = new UnionFind(csr.size());
+        for (int r = 0; r < edges.size(); r++) {
+            sets.union(edges.lo[r], edges.hi[r]);
+        }
+        SpanningForest.Components components = SpanningForest.Components.of(csr, sets, -1);
+
+        List<List<List<UniversityStudent>>> parts =
+                new ArrayList<>(Collections.nCopies(components.count, null));
+        BalanceTask task = new BalanceTask(csr, edges, components, podSize, parts,
+                0, components.count, Math.max(1, components.members.length / (parallelism * 16)));
+        if (parallelism <= 1) {
+            task.compute();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(task);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        List<List<UniversityStudent>> formed = new ArrayList<>();
+        for (List<List<UniversityStudent>> p : parts) {
+            formed.addAll(p);
+        }
+        install(formed, podSize, true, null);
+        return getPods();
+    }
+
+    /**
+     * Adds a student to the graph, if not already there, and places them in a pod
+     * without touching any other student.
+     *
+     * <p>The student joins the pod with room that they are most strongly connected
+     * to in total, with ties going to the pod holding their single strongest edge.
+     * If no pod with room is connected to them, they start a new pod at the end.</p>
+     *
+     * @param s the student joining
+     * @return the student's pod, or an empty list if no pods have been formed yet or
+     *         a different student with the same name is in the graph
+     */
+    public List<UniversityStudent> addStudent(UniversityStudent s) {
+        if (graph == null || s == null) return Collections.emptyList();
+        if (graph.getId(s) < 0 && !graph.addStudent(s)) return Collections.emptyList();
+        if (podSize == 0) return Collections.emptyList();
+
+        if (!podOf.containsKey(s)) {
+            place(s);
+            changed();
+        }
+        List<UniversityStudent> pod = podOf.get(s);
+        return (pod == null) ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(pod));
+    }
+
+    /**
+     * Removes a student from the graph and repairs their pod.
+     *
+     * <p>Only the student's former pod is examined. If the remaining members are no
+     * longer connected to one another through positive-weight edges, the largest
+     * connected group stays and everyone else is placed again as by
+     * {@link #addStudent}. An emptied pod disappears.</p>
+     *
+     * @param s the student leaving
+     * @return {@code true} if the student was in the graph
+     */
+    public boolean removeStudent(UniversityStudent s) {
+        if (graph == null || s == null) return false;
+
+        List<UniversityStudent> pod = podOf.remove(s);
+        boolean removed = graph.removeStudent(s);
+        if (pod != null) {
+            pod.remove(s);
+            repair(pod);
+        }
+        if (removed || pod != null) changed();
+        return removed;
+    }
+
+    /**
+     * Replaces the current pods with a fresh formation using the settings of the
+     * last call to {@link #formPods} or {@link #formBalancedPods}.
+     *
+     * @return the pods, or an empty list if none have been formed
+     */
+    public List<List<UniversityStudent>> rebalance() {
+        if (podSize == 0) return getPods();
+        return balanced ? formBalancedPods(podSize) : formPods(podSize, start);
+    }
+
+    /**
+     * Makes {@link #addStudent} and {@link #removeStudent} call {@link #rebalance}
+     * after every {@code interval} changes since the last full formation.
+     *
+     * @param interval the number of changes between rebalances; 0 or less disables them
+     */
+    public void setRebalanceInterval(int interval) {
+        this.rebalanceInterval = Math.max(interval, 0);
     }
 
-    public void formPods(int podSize) {
-        // Method signature only
+    /**
+     * Returns the number of changes after which pods are rebalanced automatically.
+     *
+     * @return the interval, or 0 if automatic rebalancing is off
+     */
+    public int getRebalanceInterval() {
+        return rebalanceInterval;
+    }
+
+    /**
+     * Returns the number of students added or removed since the last full formation.
+     *
+     * @return the number of incremental changes
+     */
+    public int getChangesSinceRebalance() {
+        return changes;
+    }
+
+    /**
+     * Compares the current pods with a fresh formation over the current graph, using
+     * the settings of the last full formation. The current pods are left unchanged.
+     *
+     * @return the drift report
+     */
+    public PodDrift measureDrift() {
+        PodFormation fresh = new PodFormation(graph, engine);
+        fresh.setParallelism(parallelism);
+        if (podSize > 0) {
+            if (balanced) {
+                fresh.formBalancedPods(podSize);
+            } else {
+                fresh.formPods(podSize, start);
+            }
+        }
+
+        long pairs = 0;
+        long freshPairs = 0;
+        long shared = 0;
+        for (List<UniversityStudent> pod : pods) {
+            pairs += (long) pod.size() * (pod.size() - 1) / 2;
+            for (int i = 0; i < pod.size(); i++) {
+                List<UniversityStudent> other = fresh.podOf.get(pod.get(i));
+                for (int j = i + 1; j < pod.size(); j++) {
+                    if (other != null && other == fresh.podOf.get(pod.get(j))) shared++;
+                }
+            }
+        }
+        for (List<UniversityStudent> pod : fresh.pods) {
+            freshPairs += (long) pod.size() * (pod.size() - 1) / 2;
+        }
+
+        return new PodDrift(changes, pods.size(), fresh.pods.size(), intraPodWeight(),
+                fresh.intraPodWeight(), pairs, freshPairs, shared);
+    }
+
+    /**
+     * Returns the total connection weight between students who share a pod, counting
+     * each edge once.
+     *
+     * @return the intra-pod weight of the current pods
+     */
+    public long intraPodWeight() {
+        if (graph == null) return 0;
+        long total = 0;
+        for (List<UniversityStudent> pod : pods) {
+            for (UniversityStudent s : pod) {
+                int id = graph.getId(s);
+                for (StudentGraph.Edge e : graph.getNeighbors(s)) {
+                    if (e.weight > 0 && podOf.get(e.neighbor) == pod && graph.getId(e.neighbor) > id) {
+                        total += e.weight;
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the current pods: those of the last full formation, updated by every
+     * {@link #addStudent} and {@link #removeStudent} since.
+     *
+     * @return an unmodifiable copy of the pods, or an empty list if none have been formed
+     */
+    public List<List<UniversityStudent>> getPods() {
+        if (view == null) {
+            List<List<UniversityStudent>> copy = new ArrayList<>(pods.size());
+            for (List<UniversityStudent> pod : pods) {
+                copy.add(Collections.unmodifiableList(new ArrayList<>(pod)));
+            }
+            view = Collections.unmodifiableList(copy);
+        }
+        return view;
+    }
+
+    /**
+     * Prints the current pods to the console.
+     */
+    public void displayPods() {
+        List<List<UniversityStudent>> current = getPods();
+        System.out.println("Pod Assignments:");
+        for (int i = 0; i < current.size(); i++) {
+            StringBuilder line = new StringBuilder("  Pod ").append(i).append(":");
+            for (UniversityStudent s : current.get(i)) {
+                line.append(' ').append(s.name).append(',');
+            }
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * Makes freshly formed pods the current ones and records how they were formed.
+     */
+    private void install(List<List<UniversityStudent>> formed, int podSize, boolean balanced,
+                         UniversityStudent start) {
+        pods.clear();
+        podOf.clear();
+        for (List<UniversityStudent> p : formed) {
+            List<UniversityStudent> pod = new ArrayList<>(p);
+            pods.add(pod);
+            for (UniversityStudent s : pod) {
+                podOf.put(s, pod);
+            }
+        }
+
+        this.podSize = podSize;
+        this.balanced = balanced;
+        this.start = start;
+        changes = 0;
+        view = null;
+    }
+
+    /**
+     * Puts a student who is in the graph but in no pod into the connected pod with
+     * room they are most strongly tied to, or into a new pod.
+     */
+    private void place(UniversityStudent s) {
+        Map<List<UniversityStudent>, long[]> ties = new IdentityHashMap<>();
+        List<UniversityStudent> best = null;
+        long[] bestTie = null;
+
+        for (StudentGraph.Edge e : graph.getNeighbors(s)) {
+            List<UniversityStudent> pod = podOf.get(e.neighbor);
+            if (e.weight <= 0 || pod == null || pod.size() >= podSize) continue;
+
+            // Total weight into the pod, then the strongest single edge into it
+            long[] tie = ties.computeIfAbsent(pod, k -> new long[2]);
+            tie[0] += e.weight;
+            tie[1] = Math.max(tie[1], e.weight);
+        }
+        // Adjacency order decides exact ties, so placement is deterministic
+        for (StudentGraph.Edge e : graph.getNeighbors(s)) {
+            long[] tie = ties.get(podOf.get(e.neighbor));
+            if (tie == null) continue;
+            if (bestTie == null || tie[0] > bestTie[0] || (tie[0] == bestTie[0] && tie[1] > bestTie[1])) {
+                best = podOf.get(e.neighbor);
+                bestTie = tie;
+            }
+        }
+
+        if (best == null) {
+            best = new ArrayList<>();
+            pods.add(best);
+        }
+        best.add(s);
+        podOf.put(s, best);
+        view = null;
+    }
+
+    /**
+     * Keeps the largest positively connected group of a pod that lost a member and
+     * places everyone else again. An empty pod is dropped.
+     */
+    private void repair(List<UniversityStudent> pod) {
+        view = null;
+        if (pod.isEmpty()) {
+            for (int i = 0; i < pods.size(); i++) {
+                if (pods.get(i) == pod) {
+                    pods.remove(i);
+                    break;
+                }
+            }
+            return;
+        }
+
+        // Connected groups inside the pod, in order of their first member
+        Map<UniversityStudent, Integer> group = new HashMap<>();
+        List<Integer> sizes = new ArrayList<>();
+        for (UniversityStudent root : pod) {
+            if (group.containsKey(root)) continue;
+            int g = sizes.size();
+            int size = 0;
+            Deque<UniversityStudent> stack = new ArrayDeque<>();
+            stack.push(root);
+            group.put(root, g);
+            while (!stack.isEmpty()) {
+                UniversityStudent u = stack.pop();
+                size++;
+                for (StudentGraph.Edge e : graph.getNeighbors(u)) {
+                    if (e.weight > 0 && podOf.get(e.neighbor) == pod && !group.containsKey(e.neighbor)) {
+                        group.put(e.neighbor, g);
+                        stack.push(e.neighbor);
+                    }
+                }
+            }
+            sizes.add(size);
+        }
+        if (sizes.size() == 1) return;
+
+        int keep = 0;
+        for (int g = 1; g < sizes.size(); g++) {
+            if (sizes.get(g) > sizes.get(keep)) keep = g;
+        }
+
+        List<UniversityStudent> strays = new ArrayList<>();
+        for (UniversityStudent u : pod) {
+            if (group.get(u) != keep) strays.add(u);
+        }
+        pod.removeAll(strays);
+        for (UniversityStudent u : strays) {
+            podOf.remove(u);
+        }
+        for (UniversityStudent u : strays) {
+            place(u);
+        }
+    }
+
+    /**
+     * Counts an incremental change and rebalances when the interval is reached.
+     */
+    private void changed() {
+        changes++;
+        view = null;
+        if (rebalanceInterval > 0 && changes >= rebalanceInterval) rebalance();
+    }
+
+    /**
+     * Fork/join task that splits a contiguous block of components into balanced pods.
+     * Each component writes only its own slot of the output.
+     */
+    private static class BalanceTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CsrGraph csr;
+        private final ForestEdges edges;
+        private final SpanningForest.Components components;
+        private final int podSize;
+        private final List<List<List<UniversityStudent>>> parts;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        BalanceTask(CsrGraph csr, ForestEdges edges, SpanningForest.Components components, int podSize,
+                    List<List<List<UniversityStudent>>> parts, int from, int to, int grain) {
+            this.csr = csr;
+            this.edges = edges;
+            this.components = components;
+            this.podSize = podSize;
+            this.parts = parts;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            int[] starts = components.starts;
+            if (to - from > 1 && starts[to] - starts[from] > grain) {
+                // Split where half the students are, so a giant component ends up alone
+                int half = (starts[from] + starts[to]) >>> 1;
+                int mid = Arrays.binarySearch(starts, from, to, half);
+                mid = (mid >= 0) ? mid : -mid - 1;
+                mid = Math.min(Math.max(mid, from + 1), to - 1);
+                invokeAll(new BalanceTask(csr, edges, components, podSize, parts, from, mid, grain),
+                          new BalanceTask(csr, edges, components, podSize, parts, mid, to, grain));
+                return;
+            }
+
+            for (int k = from; k < to; k++) {
+                parts.set(k, split(k));
+            }
+        }
+
+        /**
+         * Partitions one component and lists its pods by smallest member.
+         */
+        private List<List<UniversityStudent>> split(int k) {
+            int base = components.starts[k];
+            int size = components.starts[k + 1] - base;
+            int[] members = components.members;
+
+            int count = (size + podSize - 1) / podSize;
+            int[] part = new int[size];
+            if (count > 1) {
+                // The component's edges over local ids; every neighbor is in the component
+                int[] xadj = new int[size + 1];
+                for (int i = 0; i < size; i++) {
+                    int u = members[base + i];
+                    xadj[i + 1] = xadj[i] + edges.offsets[u + 1] - edges.offsets[u];
+                }
+                int[] adj = new int[xadj[size]];
+                int[] ewgt = new int[xadj[size]];
+                for (int i = 0; i < size; i++) {
+                    int u = members[base + i];
+                    int slot = xadj[i];
+                    for (int e = edges.offsets[u]; e < edges.offsets[u + 1]; e++) {
+                        adj[slot] = components.local[edges.neighbors[e]];
+                        ewgt[slot] = edges.weight[edges.ranks[e]];
+                        slot++;
+                    }
+                }
+                part = BalancedPartitioner.partition(size, xadj, adj, ewgt, count);
+            }
+
+            // Members are ascending, so numbering pods by first member orders them too
+            int[] index = new int[count];
+            Arrays.fill(index, -1);
+            List<List<UniversityStudent>> out = new ArrayList<>(count);
+            for (int i = 0; i < size; i++) {
+                int p = part[i];
+                if (index[p] < 0) {
+                    index[p] = out.size();
+                    out.add(new ArrayList<>());
+                }
+                out.get(index[p]).add(csr.getStudent(members[base + i]));
+            }
+            for (int p = 0; p < out.size(); p++) {
+                out.set(p, Collections.unmodifiableList(out.get(p)));
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Cuts each component's visit order into consecutive pods of at most {@code podSize}.
+     */
+    private static List<List<UniversityStudent>> cut(SpanningForest forest, int podSize) {
+        CsrGraph csr = forest.getCsr();
+        List<List<UniversityStudent>> out = new ArrayList<>();
+
+        for (int k = 0; k < forest.getComponentCount(); k++) {
+            int end = forest.componentStart(k + 1);
+            for (int from = forest.componentStart(k); from < end; from += podSize) {
+                int to = Math.min(from + podSize, end);
+                List<UniversityStudent> pod = new ArrayList<>(to - from);
+                for (int p = from; p < to; p++) {
+                    pod.add(csr.getStudent(forest.orderAt(p)));
+                }
+                out.add(Collections.unmodifiableList(pod));
+            }
+        }
+        return Collections.unmodifiableList(out);
     }
 }
@@ -0,0 +1,93 @@
+package src;
+
+import java.util.*;
+
+/**
+ * The answers to a batch of {@link ReferralQuery referral queries}, in the order the
+ * queries were given, together with how long the batch took.
+ */
+public class ReferralBatchResult {
+
+    /** One path per query, in input order; empty where no path exists. */
+    private final List<List<UniversityStudent>> paths;
+
+    /** Wall-clock time spent on the batch, in nanoseconds. */
+    private final long elapsedNanos;
+
+    /**
+     * Creates a batch result.
+     *
+     * @param paths one path per query, in input order
+     * @param elapsedNanos wall-clock time spent on the batch
+     */
+    public ReferralBatchResult(List<List<UniversityStudent>> paths, long elapsedNanos) {
+        this.paths = Collections.unmodifiableList(paths);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the number of queries answered.
+     *
+     * @return the number of queries
+     */
+    public int size() {
+        return paths.size();
+    }
+
+    /**
+     * Returns the referral path for the query at a given position.
+     *
+     * @param i the query's position in the batch
+     * @return the path from start to target, or an empty list if none exists
+     */
+    public List<UniversityStudent> getPath(int i) {
+        return paths.get(i);
+    }
+
+    /**
+     * Returns every referral path, in input order.
+     *
+     * @return an unmodifiable list with one path per query
+     */
+    public List<List<UniversityStudent>> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Returns the number of queries for which a path was found.
+     *
+     * @return the number of non-empty paths
+     */
+    public int getFoundCount() {
+        int found = 0;
+        for (List<UniversityStudent> p : paths) {
+            if (!p.isEmpty()) found++;
+        }
+        return found;
+    }
+
+    /**
+     * Returns the wall-clock time spent on the batch.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the batch throughput.
+     *
+     * @return queries answered per second, or 0 for an empty batch
+     */
+    public double getQueriesPerSecond() {
+        if (paths.isEmpty()) return 0;
+        return paths.size() * 1e9 / Math.max(elapsedNanos, 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d queries, %d paths found, %.1f ms, %.0f queries/s",
+                size(), getFoundCount(), elapsedNanos / 1e6, getQueriesPerSecond());
+    }
+}
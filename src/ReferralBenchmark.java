@@ -0,0 +1,140 @@
+package src;
+
+import java.util.*;
+
+/**
+ * Compares the point-to-point referral searches of {@link ReferralPathFinder}
+ * on a synthetic cohort: settled nodes and latency per query for each
+ * {@link ReferralPathFinder.PointToPoint} mode, with the plain Dijkstra search as
+ * the baseline.
+ *
+ * <p>Usage: {@code java src.ReferralBenchmark [students] [queries] [landmarks] [seed]}.
+ * Every mode answers the same random (start, target) pairs, and the benchmark checks
+ * that all of them find chains of the same cost.</p>
+ */
+public class ReferralBenchmark {
+
+    private static final String[] MAJORS = {
+            "Computer Science", "Mathematics", "Physics", "Biology", "Chemistry",
+            "Economics", "History", "Philosophy", "Psychology", "Art"
+    };
+
+    private static final String[] COMPANIES = {
+            "Google", "Microsoft", "Amazon", "Apple", "Meta", "Netflix", "Intel", "IBM",
+            "Oracle", "Nvidia", "Pfizer", "Moderna", "Deloitte", "Tesla", "Adobe", "None"
+    };
+
+    public static void main(String[] args) {
+        int students = (args.length > 0) ? Integer.parseInt(args[0]) : 3000;
+        int queries = (args.length > 1) ? Integer.parseInt(args[1]) : 500;
+        int landmarks = (args.length > 2) ? Integer.parseInt(args[2]) : ReferralPathFinder.DEFAULT_LANDMARKS;
+        long seed = (args.length > 3) ? Long.parseLong(args[3]) : 42L;
+
+        Random random = new Random(seed);
+        List<UniversityStudent> cohort = generateCohort(students, random);
+
+        long began = System.nanoTime();
+        StudentGraph graph = new StudentGraph(cohort, StudentGraph.BuildMode.INDEXED);
+        CsrGraph csr = graph.toCsr();
+        System.out.printf("Graph: %d students, %d edge slots, built in %.1f ms%n",
+                csr.size(), csr.edgeCount(), (System.nanoTime() - began) / 1e6);
+
+        UniversityStudent[][] pairs = new UniversityStudent[queries][];
+        for (int q = 0; q < queries; q++) {
+            pairs[q] = new UniversityStudent[] {
+                    cohort.get(random.nextInt(students)), cohort.get(random.nextInt(students))
+            };
+        }
+
+        ReferralPathFinder finder = new ReferralPathFinder(graph);
+        finder.setLandmarkCount(landmarks);
+
+        began = System.nanoTime();
+        finder.findPathTo(pairs[0][0], pairs[0][1], ReferralPathFinder.PointToPoint.ALT);
+        System.out.printf("Landmarks: %d, prepared in %.1f ms%n",
+                landmarks, (System.nanoTime() - began) / 1e6);
+
+        int[] baseline = null;
+        for (ReferralPathFinder.PointToPoint mode : ReferralPathFinder.PointToPoint.values()) {
+            // Warm up, then measure
+            run(finder, graph, pairs, mode);
+            long start = System.nanoTime();
+            long[] settled = new long[1];
+            int[] costs = run(finder, graph, pairs, mode, settled);
+            long elapsed = System.nanoTime() - start;
+
+            if (baseline == null) {
+                baseline = costs;
+            } else if (!Arrays.equals(baseline, costs)) {
+                System.out.println("  WARNING: " + mode + " found different chain costs");
+            }
+
+            System.out.printf("%-14s settled/query %10.1f   latency %8.1f us/query%n",
+                    mode, (double) settled[0] / queries, elapsed / 1e3 / queries);
+        }
+    }
+
+    private static int[] run(ReferralPathFinder finder, StudentGraph graph,
+                             UniversityStudent[][] pairs, ReferralPathFinder.PointToPoint mode) {
+        return run(finder, graph, pairs, mode, new long[1]);
+    }
+
+    /**
+     * Answers every pair with one mode, returning each chain's cost ({@code -1} if
+     * none) and adding the settled node counts to {@code settled[0]}.
+     */
+    private static int[] run(ReferralPathFinder finder, StudentGraph graph,
+                             UniversityStudent[][] pairs, ReferralPathFinder.PointToPoint mode,
+                             long[] settled) {
+        int[] costs = new int[pairs.length];
+        for (int q = 0; q < pairs.length; q++) {
+            List<UniversityStudent> path = finder.findPathTo(pairs[q][0], pairs[q][1], mode);
+            settled[0] += finder.getLastSettledCount();
+            costs[q] = cost(graph, path);
+        }
+        return costs;
+    }
+
+    /**
+     * Sums the cheapest edge cost along each hop of a path.
+     */
+    private static int cost(StudentGraph graph, List<UniversityStudent> path) {
+        if (path.isEmpty()) return -1;
+        int total = 0;
+        for (int k = 0; k + 1 < path.size(); k++) {
+            int best = Integer.MAX_VALUE;
+            for (StudentGraph.Edge e : graph.getNeighbors(path.get(k))) {
+                if (e.neighbor.equals(path.get(k + 1))) {
+                    best = Math.min(best, ReferralPathFinder.cost(e.weight));
+                }
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    /**
+     * Generates random students with a spread of ages, majors, internships and
+     * roommate preferences.
+     */
+    private static List<UniversityStudent> generateCohort(int n, Random random) {
+        List<UniversityStudent> cohort = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            List<String> preferences = new ArrayList<>();
+            for (int k = random.nextInt(4); k > 0; k--) {
+                preferences.add("Student" + random.nextInt(n));
+            }
+
+            List<String> internships = new ArrayList<>();
+            for (int k = random.nextInt(3); k > 0; k--) {
+                internships.add(COMPANIES[random.nextInt(COMPANIES.length)]);
+            }
+
+            cohort.add(new UniversityStudent(
+                    "Student" + i, 18 + random.nextInt(8), random.nextBoolean() ? "Female" : "Male",
+                    1 + random.nextInt(4), MAJORS[random.nextInt(MAJORS.length)],
+                    2.0 + random.nextInt(21) / 10.0, preferences, internships));
+        }
+        return cohort;
+    }
+}
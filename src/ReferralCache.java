@@ -0,0 +1,285 @@
+package src;
+
+import java.util.*;
+
+/**
+ * A bounded cache of referral search results, keyed by starting student id and
+ * case-folded company name.
+ *
+ * <p>Every entry has a weight of one plus the length of its path, and the combined
+ * weight of all entries is kept under a configurable bound by evicting entries in
+ * least-recently-used or insertion order.</p>
+ *
+ * <p>Entries remember the {@link StudentGraph#getVersion() graph version} they were
+ * computed at. Nothing is flushed when the graph changes; entries are checked when
+ * they are next looked up, and stale entries that are never looked up again age out
+ * through normal eviction. Invalidation therefore costs nothing at the time of the
+ * edit. How much survives depends on the kind of change:</p>
+ * <ul>
+ *     <li>Removing students only makes paths longer, so an entry stays valid as long
+ *         as none of the students on its path has been removed. Entries with no path
+ *         stay valid too.</li>
+ *     <li>Adding an edge or a student, or updating a profile, can make any path
+ *         shorter, so every entry computed before such a change is dropped.</li>
+ * </ul>
+ * <p>A surviving entry is still a cheapest path, though not necessarily the one a
+ * fresh search would pick among equally cheap paths.</p>
+ *
+ * <p>All methods are thread-safe.</p>
+ */
+public class ReferralCache {
+
+    /**
+     * Order in which entries are evicted once the weight bound is reached.
+     */
+    public enum EvictionPolicy {
+        /** Evict the entry that was read or written longest ago. */
+        LEAST_RECENTLY_USED,
+
+        /** Evict the entry that was inserted first, regardless of reads. */
+        FIRST_IN_FIRST_OUT
+    }
+
+    /** The graph whose version validates entries. */
+    private final StudentGraph graph;
+
+    /** Upper bound on the combined weight of all entries. */
+    private final long maxWeight;
+
+    /** The eviction order of {@link #entries}. */
+    private final EvictionPolicy policy;
+
+    /** Cached paths, in eviction order. */
+    private final LinkedHashMap<Key, Entry> entries;
+
+    /** Combined weight of {@link #entries}. */
+    private long weight;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Creates a least-recently-used cache.
+     *
+     * @param graph the graph the cached paths come from
+     * @param maxWeight upper bound on the combined weight of the entries
+     */
+    public ReferralCache(StudentGraph graph, long maxWeight) {
+        this(graph, maxWeight, EvictionPolicy.LEAST_RECENTLY_USED);
+    }
+
+    /**
+     * Creates a cache with the given eviction policy.
+     *
+     * @param graph the graph the cached paths come from
+     * @param maxWeight upper bound on the combined weight of the entries
+     * @param policy the order in which entries are evicted
+     */
+    public ReferralCache(StudentGraph graph, long maxWeight, EvictionPolicy policy) {
+        this.graph = graph;
+        this.maxWeight = Math.max(maxWeight, 0);
+        this.policy = (policy == null) ? EvictionPolicy.LEAST_RECENTLY_USED : policy;
+        this.entries = new LinkedHashMap<>(16, 0.75f,
+                this.policy == EvictionPolicy.LEAST_RECENTLY_USED);
+    }
+
+    /**
+     * Looks up the cached path for a query.
+     *
+     * @param startId the starting student's graph id
+     * @param company the company name, in any case
+     * @return the cached path, which may be empty, or {@code null} on a miss
+     */
+    public synchronized List<UniversityStudent> get(int startId, String company) {
+        Key key = new Key(startId, company);
+        Entry e = entries.get(key);
+
+        if (e != null && e.version != graph.getVersion()) {
+            if (survives(e)) {
+                // Only removals since, none on the path: valid at this version too
+                e.version = graph.getVersion();
+            } else {
+                entries.remove(key);
+                weight -= e.weight;
+                invalidations++;
+                e = null;
+            }
+        }
+
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return e.path;
+    }
+
+    /**
+     * Stores the path found for a query.
+     *
+     * @param startId the starting student's graph id
+     * @param company the company name, in any case
+     * @param path the path that was found, possibly empty
+     * @param version the graph version the path was computed at
+     */
+    public synchronized void put(int startId, String company, List<UniversityStudent> path, long version) {
+        if (version != graph.getVersion()) return;
+
+        Entry e = new Entry(Collections.unmodifiableList(new ArrayList<>(path)), version);
+        if (e.weight > maxWeight) return;
+
+        Entry old = entries.put(new Key(startId, company), e);
+        if (old != null) weight -= old.weight;
+        weight += e.weight;
+
+        Iterator<Entry> it = entries.values().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            Entry victim = it.next();
+            it.remove();
+            weight -= victim.weight;
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns whether an entry computed at an older version is still a cheapest path:
+     * every change since then removed students, and none of them is on the path.
+     */
+    private boolean survives(Entry e) {
+        if (graph.getGrowthVersion() > e.version) return false;
+        for (UniversityStudent s : e.path) {
+            if (graph.getId(s) < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Removes every entry. Counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Returns the number of cached entries, including stale ones not yet dropped.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the combined weight of the cached entries.
+     *
+     * @return the current weight
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Returns the weight bound.
+     *
+     * @return the largest combined weight the cache holds
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Returns the eviction policy.
+     *
+     * @return the order in which entries are evicted
+     */
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that found no valid entry.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries evicted to respect the weight bound.
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of entries dropped because a graph change made them stale.
+     *
+     * @return the invalidation count
+     */
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ReferralCache[entries=%d, weight=%d/%d, hits=%d, misses=%d, "
+                        + "evictions=%d, invalidations=%d]",
+                entries.size(), weight, maxWeight, hits, misses, evictions, invalidations);
+    }
+
+    /**
+     * Cache key: a start id and a case-folded company name.
+     */
+    private static final class Key {
+        private final int startId;
+        private final String company;
+
+        Key(int startId, String company) {
+            this.startId = startId;
+            this.company = AttributeDictionary.fold(company);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return startId == k.startId && company.equals(k.company);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * startId + company.hashCode();
+        }
+    }
+
+    /**
+     * A cached path with the latest graph version it is known to be valid at.
+     */
+    private static final class Entry {
+        private final List<UniversityStudent> path;
+        private long version;
+        private final long weight;
+
+        Entry(List<UniversityStudent> path, long version) {
+            this.path = path;
+            this.version = version;
+            this.weight = 1L + path.size();
+        }
+    }
+}
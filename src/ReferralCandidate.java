@@ -0,0 +1,67 @@
+package src;
+
+import java.util.*;
+
+/**
+ * One ranked result of {@link ReferralPathFinder#findTopReferrals}: a student who
+ * interned at the requested company, the total cost of reaching them, and the
+ * referral chain that does so.
+ */
+public class ReferralCandidate {
+
+    /** The student who can give the referral. */
+    private final UniversityStudent referrer;
+
+    /** Total {@code 10 - weight} cost of the chain. */
+    private final int cost;
+
+    /** The chain from the starting student to {@link #referrer}, inclusive. */
+    private final List<UniversityStudent> path;
+
+    /**
+     * Creates a ranked referral candidate.
+     *
+     * @param referrer the student who interned at the company
+     * @param cost the total cost of the chain
+     * @param path the chain from the starting student to the referrer
+     */
+    public ReferralCandidate(UniversityStudent referrer, int cost, List<UniversityStudent> path) {
+        this.referrer = referrer;
+        this.cost = cost;
+        this.path = Collections.unmodifiableList(path);
+    }
+
+    /**
+     * Returns the student who can give the referral.
+     *
+     * @return the last student on the chain
+     */
+    public UniversityStudent getReferrer() {
+        return referrer;
+    }
+
+    /**
+     * Returns the total cost of the chain; lower is more reliable.
+     *
+     * @return the sum of {@code 10 - weight} over the chain's edges
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Returns the referral chain.
+     *
+     * @return the students from the starting student to the referrer, inclusive
+     */
+    public List<UniversityStudent> getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        List<String> names = new ArrayList<>();
+        for (UniversityStudent s : path) names.add(s.name);
+        return String.format("%s (cost %d): %s", referrer.name, cost, String.join(" -> ", names));
+    }
+}
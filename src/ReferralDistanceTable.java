@@ -0,0 +1,142 @@
+package src;
+
+import java.util.*;
+
+/**
+ * Precomputed referral distances from every student to the nearest intern of one company.
+ *
+ * <p>The table is the result of a single multi-source Dijkstra that starts from every
+ * student who interned at the company at once and walks the graph's edges backwards,
+ * using the same {@code cost = 10 - weight} metric as {@link ReferralPathFinder}. For
+ * every student id it stores:</p>
+ * <ul>
+ *     <li>the cost of the cheapest referral chain to any intern of the company, and</li>
+ *     <li>the next student on that chain (the next hop), or {@code -1} at an intern.</li>
+ * </ul>
+ *
+ * <p>A referral query from any start is then answered by following next hops, in time
+ * proportional to the length of the path. A table is tied to the CSR snapshot and graph
+ * version it was built from and must not be used after the graph changes;
+ * {@link ReferralPathFinder} takes care of that.</p>
+ */
+public final class ReferralDistanceTable {
+
+    /** The company's id in {@link AttributeDictionary#COMPANIES}. */
+    private final int companyId;
+
+    /** Graph version the table was built at. */
+    private final long version;
+
+    /** Cost from each id to the nearest intern, or {@code Integer.MAX_VALUE} if unreachable. */
+    private final int[] dist;
+
+    /** Next id on the cheapest chain from each id, {@code -1} at an intern. */
+    private final int[] nextHop;
+
+    private ReferralDistanceTable(int companyId, long version, int[] dist, int[] nextHop) {
+        this.companyId = companyId;
+        this.version = version;
+        this.dist = dist;
+        this.nextHop = nextHop;
+    }
+
+    /**
+     * Builds the table for one company with a reverse multi-source search.
+     *
+     * @param csr the graph snapshot
+     * @param companyId the company's dictionary id
+     * @param interns ids of the students who interned at the company
+     * @param version the graph version {@code csr} was taken at
+     * @return the distance table
+     */
+    static ReferralDistanceTable build(CsrGraph csr, int companyId, int[] interns, long version) {
+        int n = csr.size();
+        int[] dist = new int[n];
+        int[] nextHop = new int[n];
+
+        // Searching the transpose from the interns yields, for every u, the cost of
+        // u → … → intern in the original direction, and the predecessor found for u
+        // is the next hop of that path
+        SearchContext ctx = new SearchContext();
+        ReferralPathFinder.bucketSearch(csr.transpose(), interns, ctx, false);
+        for (int id = 0; id < n; id++) {
+            dist[id] = ctx.dist(id);
+            nextHop[id] = (dist[id] == Integer.MAX_VALUE) ? -1 : ctx.pred(id);
+        }
+        return new ReferralDistanceTable(companyId, version, dist, nextHop);
+    }
+
+    /**
+     * Returns the company this table was built for.
+     *
+     * @return the company's id in {@link AttributeDictionary#COMPANIES}
+     */
+    public int getCompanyId() {
+        return companyId;
+    }
+
+    /**
+     * Returns the graph version this table was built at.
+     *
+     * @return the graph version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the cost of the cheapest referral chain from a student to the company.
+     *
+     * @param id the student id
+     * @return the total cost, or {@code -1} if no intern is reachable
+     */
+    public int distance(int id) {
+        return (dist[id] == Integer.MAX_VALUE) ? -1 : dist[id];
+    }
+
+    /**
+     * Returns the next student on the cheapest referral chain from a student.
+     *
+     * @param id the student id
+     * @return the next id, or {@code -1} if the student is an intern or unreachable
+     */
+    public int nextHop(int id) {
+        return (dist[id] == Integer.MAX_VALUE) ? -1 : nextHop[id];
+    }
+
+    /**
+     * Returns the approximate heap size of the table's arrays.
+     *
+     * @return the size in bytes
+     */
+    public long bytes() {
+        return 8L * dist.length;
+    }
+
+    /**
+     * Estimates the size of a table over a graph with the given number of ids.
+     *
+     * @param size the number of id slots
+     * @return the size in bytes
+     */
+    static long bytesFor(int size) {
+        return 8L * size;
+    }
+
+    /**
+     * Follows next hops from a start student to the nearest intern.
+     *
+     * @param csr the snapshot the table was built from
+     * @param start the id to start from
+     * @return the students on the path, from start to intern; empty if none is reachable
+     */
+    List<UniversityStudent> path(CsrGraph csr, int start) {
+        if (dist[start] == Integer.MAX_VALUE) return Collections.emptyList();
+
+        List<UniversityStudent> path = new ArrayList<>();
+        for (int cur = start; cur >= 0; cur = nextHop[cur]) {
+            path.add(csr.getStudent(cur));
+        }
+        return path;
+    }
+}
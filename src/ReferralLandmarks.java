@@ -0,0 +1,157 @@
+package src;
+
+import java.util.*;
+
+/**
+ * Landmark distances for ALT (A*, landmarks, triangle inequality) referral searches.
+ *
+ * <p>A handful of landmark students are chosen, and the cost of the cheapest chain
+ * from every student to every landmark and back is computed once with the
+ * {@code cost = 10 - weight} metric of {@link ReferralPathFinder}. By the triangle
+ * inequality, for any landmark {@code L}:</p>
+ * <pre>
+ * d(v, t) &gt;= d(L, t) - d(L, v)
+ * d(v, t) &gt;= d(v, L) - d(t, L)
+ * </pre>
+ * <p>so the largest of these bounds is an admissible and consistent A* heuristic.
+ * The same tables also prove some pairs unreachable: if {@code L} reaches {@code v}
+ * but not {@code t}, no path leads from {@code v} to {@code t}.</p>
+ *
+ * <p>Landmarks are chosen by farthest-point selection: each new landmark is the
+ * student farthest from the ones already chosen, and a student none of them can
+ * reach counts as infinitely far, so every component gets a landmark before any
+ * component gets a second one.</p>
+ *
+ * <p>Like {@link ReferralDistanceTable}, an instance belongs to one graph version.</p>
+ */
+public final class ReferralLandmarks {
+
+    /** Graph version the distances were computed at. */
+    private final long version;
+
+    /** Ids of the landmarks. */
+    private final int[] landmarks;
+
+    /** {@code from[k][v]}: cost from landmark {@code k} to {@code v}. */
+    private final int[][] from;
+
+    /** {@code to[k][v]}: cost from {@code v} to landmark {@code k}. */
+    private final int[][] to;
+
+    private ReferralLandmarks(long version, int[] landmarks, int[][] from, int[][] to) {
+        this.version = version;
+        this.landmarks = landmarks;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Chooses landmarks and computes their distance tables.
+     *
+     * @param csr the graph snapshot
+     * @param count the number of landmarks wanted
+     * @param version the graph version {@code csr} was taken at
+     * @return the landmark tables; fewer landmarks are used if the graph is smaller
+     */
+    static ReferralLandmarks build(CsrGraph csr, int count, long version) {
+        int n = csr.size();
+        SearchContext ctx = new SearchContext();
+
+        // Distance to the nearest landmark chosen so far, for farthest-point selection
+        int[] nearest = new int[n];
+        Arrays.fill(nearest, SearchContext.UNREACHED);
+
+        List<Integer> chosen = new ArrayList<>();
+        List<int[]> fromList = new ArrayList<>();
+        List<int[]> toList = new ArrayList<>();
+
+        while (chosen.size() < count) {
+            int next = -1;
+            for (int v = 0; v < n; v++) {
+                if (csr.getStudent(v) == null || nearest[v] == 0) continue;
+                if (next < 0 || nearest[v] > nearest[next]) next = v;
+            }
+            if (next < 0) break;
+
+            int[] f = distances(csr, next, ctx);
+            int[] t = distances(csr.transpose(), next, ctx);
+            for (int v = 0; v < n; v++) {
+                nearest[v] = Math.min(nearest[v], Math.min(f[v], t[v]));
+            }
+
+            chosen.add(next);
+            fromList.add(f);
+            toList.add(t);
+        }
+
+        int[] ids = new int[chosen.size()];
+        for (int k = 0; k < ids.length; k++) ids[k] = chosen.get(k);
+        return new ReferralLandmarks(version, ids,
+                fromList.toArray(new int[0][]), toList.toArray(new int[0][]));
+    }
+
+    private static int[] distances(CsrGraph csr, int source, SearchContext ctx) {
+        ReferralPathFinder.bucketSearch(csr, source, ctx, false);
+        int[] dist = new int[csr.size()];
+        for (int v = 0; v < dist.length; v++) dist[v] = ctx.dist(v);
+        return dist;
+    }
+
+    /**
+     * Returns a lower bound on the cost of the cheapest chain from {@code v} to {@code t}.
+     *
+     * @param v the id to estimate from
+     * @param t the target id
+     * @return a lower bound, or {@code Integer.MAX_VALUE} if {@code t} is provably
+     *         unreachable from {@code v}
+     */
+    public int lowerBound(int v, int t) {
+        final int inf = SearchContext.UNREACHED;
+        int bound = 0;
+
+        for (int k = 0; k < landmarks.length; k++) {
+            int lv = from[k][v], lt = from[k][t];
+            if (lv != inf) {
+                if (lt == inf) return inf;
+                bound = Math.max(bound, lt - lv);
+            }
+
+            int vl = to[k][v], tl = to[k][t];
+            if (tl != inf) {
+                if (vl == inf) return inf;
+                bound = Math.max(bound, vl - tl);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Returns the ids of the landmarks.
+     *
+     * @return a copy of the landmark ids
+     */
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Returns the graph version the tables were computed at.
+     *
+     * @return the graph version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the approximate heap size of the distance tables.
+     *
+     * @return the size in bytes
+     */
+    public long bytes() {
+        long total = 0;
+        for (int[] f : from) total += 4L * f.length;
+        for (int[] t : to) total += 4L * t.length;
+        return total;
+    }
+}
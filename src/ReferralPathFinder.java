@@ -1,6 +1,13 @@
 package src;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Performs a referral path search using Dijkstra's algorithm on a {@link StudentGraph}.
@@ -24,19 +31,389 @@ import java.util.*;
  *
  * <p>The first student encountered who has an internship match becomes
  * the destination, and the algorithm reconstructs the path via predecessors.</p>
+ *
+ * <p>On a graph built with {@link StudentGraph.BuildMode#SPARSE} (or
+ * {@code INDEXED}) weight-0 pairs have no edge, so only real connections are
+ * relaxed and students who share nothing with the start are unreachable.</p>
+ *
+ * <p>Since costs are small non-negative integers (weights above 10 clamp to cost 0),
+ * the default {@link SearchStrategy#BUCKET_QUEUE} runs Dial's algorithm over the
+ * graph's CSR snapshot: int distances, int ids, and a circular array of
+ * {@code MAX_COST + 1} buckets, for O(V + E + C) time with no boxing.</p>
  */
 public class ReferralPathFinder {
 
+    /**
+     * Priority queue used by the Dijkstra search.
+     */
+    public enum SearchStrategy {
+        /**
+         * Dial's algorithm: a circular bucket queue indexed by integer distance,
+         * running on the graph's CSR snapshot.
+         */
+        BUCKET_QUEUE,
+
+        /**
+         * Dijkstra's algorithm with an {@link IndexedMinHeap} keyed by distance, with
+         * real decrease-key, running on the graph's CSR snapshot. It does not rely on
+         * costs being small integers.
+         */
+        PRIORITY_QUEUE
+    }
+
+    /**
+     * Search used by {@link #findPathTo} to connect two given students.
+     */
+    public enum PointToPoint {
+        /** Dial's algorithm from the start, stopping when the target is settled. */
+        DIJKSTRA,
+
+        /**
+         * Dial's algorithm from both ends at once, forward from the start and backward
+         * from the target, stopping once the two frontiers prove the best meeting point.
+         */
+        BIDIRECTIONAL,
+
+        /**
+         * A* from the start, guided by landmark lower bounds
+         * (see {@link ReferralLandmarks}).
+         */
+        ALT
+    }
+
+    /** The largest traversal cost of a single edge ({@code 10 - 0}). */
+    public static final int MAX_COST = 10;
+
+    /** Distance of a node that has not been reached. */
+    private static final int UNREACHED = SearchContext.UNREACHED;
+
+    /** Scratch space for searches, one per thread so searches never share it. */
+    private static final ThreadLocal<SearchContext> CONTEXTS =
+            ThreadLocal.withInitial(SearchContext::new);
+
+    /** Scratch space for the backward half of bidirectional searches. */
+    private static final ThreadLocal<SearchContext> BACKWARD_CONTEXTS =
+            ThreadLocal.withInitial(SearchContext::new);
+
+    /** Default number of landmarks for {@link PointToPoint#ALT}. */
+    public static final int DEFAULT_LANDMARKS = 8;
+
     /** The social/connection graph used to evaluate referral strength. */
     private final StudentGraph graph;
 
+    /** The priority queue implementation used by searches. */
+    private final SearchStrategy strategy;
+
     /**
-     * Creates a new path-finder that operates on a given {@link StudentGraph}.
+     * Queries a company needs before its distance table is built; 0 disables tables.
+     * Volatile so that queries with tables off never touch the table cache.
+     */
+    private volatile int hotQueryThreshold;
+
+    /** Upper bound on the combined size of cached distance tables, in bytes. */
+    private volatile long maxTableBytes;
+
+    /** Distance tables and query counts for the current graph version, or {@code null}. */
+    private volatile DistanceTables tables;
+
+    /** Source of last-use stamps for least-recently-used eviction. */
+    private final AtomicLong tableClock = new AtomicLong();
+
+    /** Cache of single-query results, or {@code null} if results are not cached. */
+    private volatile ReferralCache resultCache;
+
+    /** Number of landmarks ALT searches use. */
+    private int landmarkCount = DEFAULT_LANDMARKS;
+
+    /** Landmark tables for the current graph version, or {@code null} until needed. */
+    private ReferralLandmarks landmarks;
+
+    /**
+     * Creates a new path-finder that operates on a given {@link StudentGraph},
+     * using the bucket queue.
      *
      * @param graph the graph of student relationships
      */
     public ReferralPathFinder(StudentGraph graph) {
+        this(graph, SearchStrategy.BUCKET_QUEUE);
+    }
+
+    /**
+     * Creates a new path-finder that operates on a given {@link StudentGraph}.
+     *
+     * @param graph the graph of student relationships
+     * @param strategy the priority queue implementation to search with
+     */
+    public ReferralPathFinder(StudentGraph graph, SearchStrategy strategy) {
         this.graph = graph;
+        this.strategy = (strategy == null) ? SearchStrategy.BUCKET_QUEUE : strategy;
+    }
+
+    /**
+     * Sets the cache consulted by {@link #findReferralPath(UniversityStudent, String)}.
+     * A query that hits a valid entry returns the cached (unmodifiable) path; a miss
+     * runs the search and stores its result. Batch queries bypass the cache.
+     *
+     * @param cache a cache over this finder's graph, or {@code null} to stop caching
+     */
+    public void setResultCache(ReferralCache cache) {
+        this.resultCache = cache;
+    }
+
+    /**
+     * Returns the cache consulted by single queries.
+     *
+     * @return the result cache, or {@code null} if results are not cached
+     */
+    public ReferralCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Turns on precomputed distance tables for frequently queried companies.
+     *
+     * <p>Once a company has been queried {@code hotQueryThreshold} times, one reverse
+     * multi-source search from all of its interns builds a {@link ReferralDistanceTable},
+     * and every later query for that company is a walk along next hops. Tables are
+     * evicted least recently used first to keep their combined size under
+     * {@code maxBytes}, and all of them are dropped as soon as the graph's version
+     * changes. Tables serve the {@link SearchStrategy#BUCKET_QUEUE} strategy only.</p>
+     *
+     * @param hotQueryThreshold queries after which a company gets a table; {@code 1} builds
+     *                          on first use, {@code 0} or less turns tables off
+     * @param maxBytes upper bound on the memory held by tables
+     */
+    public synchronized void enableDistanceTables(int hotQueryThreshold, long maxBytes) {
+        this.maxTableBytes = Math.max(maxBytes, 0);
+        this.hotQueryThreshold = Math.max(hotQueryThreshold, 0);
+        this.tables = null;
+    }
+
+    /**
+     * Builds the distance table for a company right away, whatever its query count.
+     * Distance tables must have been enabled with {@link #enableDistanceTables}.
+     * If another thread is already building the table, waits for it.
+     *
+     * @param company the company name
+     * @return {@code true} if a table for the company is now cached
+     */
+    public boolean precompute(String company) {
+        int companyId = AttributeDictionary.COMPANIES.lookup(company);
+        if (companyId == AttributeDictionary.NULL_ID || graph == null) return false;
+        return tableFor(companyId, graph.toCsr(), 1, true) != null;
+    }
+
+    /**
+     * Returns the number of distance tables currently cached.
+     *
+     * @return the number of cached tables, not counting tables still being built
+     */
+    public int getDistanceTableCount() {
+        DistanceTables current = tables;
+        if (current == null) return 0;
+
+        int count = 0;
+        for (TableEntry entry : current.entries.values()) {
+            if (entry.table.isDone()) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the combined size of the cached distance tables.
+     *
+     * @return the size in bytes, including tables still being built
+     */
+    public synchronized long getDistanceTableBytes() {
+        DistanceTables current = tables;
+        return (current == null) ? 0 : current.bytes;
+    }
+
+    /**
+     * Returns the cached table for a company, building it if the company has become
+     * hot (or {@code force} is set) and it fits in the memory bound.
+     * {@code queries} is the number of queries to count towards the threshold.
+     *
+     * <p>Lookups and query counts go through concurrent maps without locking. The
+     * first thread to find a company hot publishes a future for its table and runs
+     * the build outside any lock; other queries for that company search on their own
+     * until the table is done, and only {@code force} waits for it. The finder's
+     * monitor is held only to reserve memory and evict tables.</p>
+     *
+     * @return the table, or {@code null} if queries should run a search instead
+     */
+    private ReferralDistanceTable tableFor(int companyId, CsrGraph csr, int queries, boolean force) {
+        int threshold = hotQueryThreshold;
+        if (threshold <= 0) return null;
+
+        DistanceTables current = currentTables();
+        TableEntry entry = current.entries.get(companyId);
+        if (entry == null) {
+            int count = current.queryCounts.merge(companyId, queries, Integer::sum);
+            long bytes = ReferralDistanceTable.bytesFor(csr.size());
+            if ((!force && count < threshold) || bytes > maxTableBytes) return null;
+
+            TableEntry fresh = new TableEntry(bytes);
+            entry = current.entries.putIfAbsent(companyId, fresh);
+            if (entry == null) {
+                entry = fresh;
+                if (!reserve(current, fresh)) return null;
+                build(current, companyId, csr, fresh);
+            }
+        }
+
+        return use(entry, force);
+    }
+
+    /**
+     * Returns the finished table for a company without counting a query or starting
+     * a build, for searches that only use a table when one happens to be cached.
+     *
+     * @return the table, or {@code null} if none is finished
+     */
+    private ReferralDistanceTable cachedTable(int companyId) {
+        if (hotQueryThreshold <= 0) return null;
+
+        TableEntry entry = currentTables().entries.get(companyId);
+        return (entry == null) ? null : use(entry, false);
+    }
+
+    /**
+     * Stamps an entry as used and returns its table, waiting for the build only if
+     * {@code wait} is set.
+     *
+     * @return the table, or {@code null} if it is not done or its build failed
+     */
+    private ReferralDistanceTable use(TableEntry entry, boolean wait) {
+        if (!entry.table.isDone() && !wait) return null;
+        entry.lastUse = tableClock.incrementAndGet();
+        try {
+            return entry.table.join();
+        } catch (CompletionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the tables for the current graph version, dropping those of an older one.
+     */
+    private DistanceTables currentTables() {
+        long version = graph.getVersion();
+        DistanceTables current = tables;
+        if (current != null && current.version == version) return current;
+
+        synchronized (this) {
+            current = tables;
+            if (current == null || current.version != version) {
+                current = new DistanceTables(version);
+                tables = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Makes room for a table about to be built, evicting least recently used finished
+     * tables. If the tables being built leave no room, the entry is withdrawn.
+     *
+     * @return {@code true} if the entry's bytes were reserved
+     */
+    private synchronized boolean reserve(DistanceTables current, TableEntry fresh) {
+        while (current.bytes + fresh.bytes > maxTableBytes) {
+            Map.Entry<Integer, TableEntry> oldest = null;
+            for (Map.Entry<Integer, TableEntry> e : current.entries.entrySet()) {
+                TableEntry candidate = e.getValue();
+                if (candidate.reserved && candidate.table.isDone()
+                        && (oldest == null || candidate.lastUse < oldest.getValue().lastUse)) {
+                    oldest = e;
+                }
+            }
+            if (oldest == null) {
+                withdraw(current, fresh);
+                return false;
+            }
+            release(current, oldest.getKey(), oldest.getValue());
+        }
+        current.bytes += fresh.bytes;
+        fresh.reserved = true;
+        return true;
+    }
+
+    /**
+     * Builds a reserved table on the calling thread and publishes it, or withdraws
+     * the entry if the build fails.
+     */
+    private void build(DistanceTables current, int companyId, CsrGraph csr, TableEntry fresh) {
+        try {
+            fresh.table.complete(ReferralDistanceTable.build(
+                    csr, companyId, graph.getInternIds(companyId), current.version));
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                release(current, companyId, fresh);
+            }
+            fresh.table.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes an entry and returns its reserved bytes. Must hold the finder's monitor.
+     */
+    private void release(DistanceTables current, int companyId, TableEntry entry) {
+        if (current.entries.remove(companyId, entry) && entry.reserved) {
+            current.bytes -= entry.bytes;
+            entry.reserved = false;
+        }
+    }
+
+    /**
+     * Removes an entry that was never reserved, so that a later query can retry.
+     */
+    private void withdraw(DistanceTables current, TableEntry fresh) {
+        fresh.table.cancel(false);
+        current.entries.values().remove(fresh);
+    }
+
+    /**
+     * The distance tables and query counts of one graph version.
+     */
+    private static final class DistanceTables {
+        /** Graph version the tables and counts belong to. */
+        final long version;
+
+        /** Table entries by company id, published before their build starts. */
+        final Map<Integer, TableEntry> entries = new ConcurrentHashMap<>();
+
+        /** Queries seen per company id at this version. */
+        final Map<Integer, Integer> queryCounts = new ConcurrentHashMap<>();
+
+        /** Combined size of the reserved entries; guarded by the finder's monitor. */
+        long bytes;
+
+        DistanceTables(long version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * A company's distance table, possibly still being built.
+     */
+    private static final class TableEntry {
+        /** Completed with the table once its build finishes. */
+        final CompletableFuture<ReferralDistanceTable> table = new CompletableFuture<>();
+
+        /** Size of the table, in bytes. */
+        final long bytes;
+
+        /** Whether {@link #bytes} is counted in the owner's total; guarded by the finder's monitor. */
+        boolean reserved;
+
+        /** Stamp of the last query served by the table. */
+        volatile long lastUse;
+
+        TableEntry(long bytes) {
+            this.bytes = bytes;
+        }
     }
 
     /**
@@ -45,12 +422,23 @@ public class ReferralPathFinder {
      *
      * <p>Algorithm steps:</p>
      * <ol>
-     *     <li>Identify all students who have {@code targetCompany} in their internship list.</li>
+     *     <li>Identify all students who have {@code targetCompany} in their internship list,
+     *         using the graph's company index.</li>
      *     <li>Run Dijkstra from {@code start} using cost = 10 - weight.</li>
      *     <li>Stop early as soon as a target student is dequeued.</li>
      *     <li>Reconstruct the path using predecessor tracking.</li>
      * </ol>
      *
+     * <p>With a {@link #setResultCache result cache} set, a repeated query is answered
+     * from the cache until the graph changes. With {@link #enableDistanceTables distance
+     * tables} on, a query for a hot company is answered from its table instead of
+     * running a search.</p>
+     *
+     * <p>Both strategies return a path of minimum total cost. When several targets or
+     * routes tie, the bucket queue settles nodes of equal distance in the order they
+     * were reached, and a node keeps the first predecessor that reached it at its final
+     * distance.</p>
+     *
      * @param start the student from whom the referral search begins
      * @param targetCompany the company for which a referral is sought
      * @return a list of {@link UniversityStudent} objects representing the
@@ -58,87 +446,883 @@ public class ReferralPathFinder {
      *         returns an empty list if no path exists
      */
     public List<UniversityStudent> findReferralPath(UniversityStudent start, String targetCompany) {
-        if (start == null || targetCompany == null || graph == null) {
+        return findReferralPath(start, targetCompany, CONTEXTS.get());
+    }
+
+    /**
+     * Finds the shortest referral path like
+     * {@link #findReferralPath(UniversityStudent, String)}, using a caller-supplied
+     * search context instead of the calling thread's own.
+     *
+     * <p>Once the context has grown to the size of the graph, a query that is not
+     * answered from the result cache allocates nothing but the returned path.</p>
+     *
+     * @param start the student from whom the referral search begins
+     * @param targetCompany the company for which a referral is sought
+     * @param ctx the scratch space to search with; not shared with other threads
+     * @return the referral path including both start and target, or an empty list
+     */
+    public List<UniversityStudent> findReferralPath(UniversityStudent start, String targetCompany,
+                                                    SearchContext ctx) {
+        if (start == null || targetCompany == null || graph == null || ctx == null) {
+            return Collections.emptyList();
+        }
+
+        ReferralCache cache = resultCache;
+        if (cache == null) return search(start, targetCompany, ctx);
+
+        int startId = graph.getId(start);
+        if (startId < 0) return Collections.emptyList();
+
+        List<UniversityStudent> cached = cache.get(startId, targetCompany);
+        if (cached != null) return cached;
+
+        // Stamp with the version before searching, so a concurrent edit is not missed
+        long version = graph.getVersion();
+        List<UniversityStudent> path = search(start, targetCompany, ctx);
+        cache.put(startId, targetCompany, path, version);
+        return path;
+    }
+
+    /**
+     * Runs the referral search for one query with the configured strategy,
+     * consulting the distance tables but not the result cache.
+     */
+    private List<UniversityStudent> search(UniversityStudent start, String targetCompany,
+                                           SearchContext ctx) {
+        int companyId = AttributeDictionary.COMPANIES.lookup(targetCompany);
+        boolean placeholder = targetCompany.equalsIgnoreCase("None");
+
+        // Nobody interned at an unknown company; answer without touching the graph
+        if (companyId == AttributeDictionary.NULL_ID && !placeholder) {
+            return Collections.emptyList();
+        }
+
+        CsrGraph csr = graph.toCsr();
+        int source = csr.getId(start);
+        if (source < 0) return Collections.emptyList();
+
+        // A hot company's table answers without resolving targets or searching
+        if (strategy == SearchStrategy.BUCKET_QUEUE && companyId != AttributeDictionary.NULL_ID) {
+            ReferralDistanceTable table = tableFor(companyId, csr, 1, false);
+            if (table != null) return table.path(csr, source);
+        }
+
+        ctx.ensureCapacity(csr.size());
+        int count = collectTargets(companyId, placeholder, targetCompany, ctx.ids);
+        if (count == 0) return Collections.emptyList();
+        ctx.setTargets(null, ctx.ids, count);
+
+        int found = (strategy == SearchStrategy.PRIORITY_QUEUE)
+                ? heapSearch(csr, source, ctx)
+                : bucketSearch(csr, source, ctx, true);
+        return (found < 0) ? Collections.emptyList() : buildPath(csr, ctx, found);
+    }
+
+    /**
+     * Dijkstra's algorithm from {@code source} on the context's indexed heap, until
+     * the first target is settled. Each id is in the heap at most once; a cheaper
+     * distance lowers its key in place.
+     *
+     * @return the id of the first target settled, or {@code -1} if none is reachable
+     */
+    static int heapSearch(CsrGraph csr, int source, SearchContext ctx) {
+        ctx.begin(csr.size());
+        IndexedMinHeap heap = ctx.heap();
+        ctx.reach(source, 0, -1);
+        heap.offer(source, 0);
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            ctx.settle(u);
+            if (ctx.isTarget(u)) return u;
+
+            int d = ctx.dist(u);
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                int v = csr.target(e);
+                if (ctx.isSettled(v)) continue;
+
+                int dv = d + cost(csr.weight(e));
+                if (dv < ctx.dist(v)) {
+                    ctx.reach(v, dv, u);
+                    heap.offer(v, dv);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the {@code k} closest students who interned at a company, each with its
+     * own referral chain, in a single search.
+     *
+     * <p>The search is the same one {@link #findReferralPath(UniversityStudent, String)}
+     * runs, except that it keeps going after the first intern is settled and stops
+     * once {@code k} have been. Each intern appears at most once, and the first
+     * candidate is the path {@code findReferralPath} returns. The frontier is explored
+     * once however many candidates are asked for.</p>
+     *
+     * @param start the student from whom the referral search begins
+     * @param targetCompany the company for which a referral is sought
+     * @param k the maximum number of candidates to return
+     * @return up to {@code k} candidates ordered by cost, ties in the order they were
+     *         settled; an empty list if there are none
+     */
+    public List<ReferralCandidate> findTopReferrals(UniversityStudent start, String targetCompany, int k) {
+        if (start == null || targetCompany == null || graph == null || k <= 0) {
+            return Collections.emptyList();
+        }
+
+        int[] targets = targetIds(targetCompany);
+        if (targets.length == 0) return Collections.emptyList();
+
+        CsrGraph csr = graph.toCsr();
+        int source = csr.getId(start);
+        if (source < 0) return Collections.emptyList();
+
+        SearchContext ctx = CONTEXTS.get();
+        ctx.ensureCapacity(csr.size());
+        ctx.setTargets(null, targets);
+        ctx.begin(csr.size());
+        ctx.offer(source, 0, -1);
+
+        List<ReferralCandidate> found = new ArrayList<>(Math.min(k, targets.length));
+        int remaining = Math.min(k, targets.length);
+
+        while (ctx.peekDistance() != UNREACHED) {
+            int current = ctx.peekDistance();
+            int u = ctx.poll();
+
+            if (ctx.isTarget(u)) {
+                found.add(new ReferralCandidate(csr.getStudent(u), current, buildPath(csr, ctx, u)));
+                if (--remaining == 0) break;
+            }
+
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                int v = csr.target(e);
+                if (!ctx.isSettled(v)) ctx.offer(v, current + cost(csr.weight(e)), u);
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Finds up to {@code k} loopless referral chains from a student to interns of a
+     * company, cheapest first, using Yen's algorithm.
+     *
+     * <p>Chains end at the first intern they reach, as in
+     * {@link #findReferralPath(UniversityStudent, String)}, and the first chain is the
+     * one its bucket-queue search finds. Each further chain is the cheapest one that
+     * differs from all earlier ones, so alternatives avoid a bottleneck student
+     * wherever the graph allows it.</p>
+     *
+     * <p>Yen's algorithm runs one spur search for every node of every accepted chain.
+     * Here they are A* searches guided by the distance to the nearest intern. That
+     * distance comes from the company's cached {@link ReferralDistanceTable} if there
+     * is one, and otherwise from one reverse search from all interns per call, allowed
+     * to settle as many nodes as the forward search for the best chain did; nodes
+     * beyond its frontier are bounded by the frontier distance. Removing nodes and
+     * edges only lengthens chains, so this heuristic stays admissible and each spur
+     * search heads almost straight for an intern. Root nodes are excluded by marking
+     * them settled before the search starts. All scratch space is the calling
+     * thread's pooled {@link SearchContext}.</p>
+     *
+     * @param start the student from whom the referral search begins
+     * @param targetCompany the company for which a referral is sought
+     * @param k the maximum number of chains to return
+     * @return up to {@code k} distinct loopless chains ordered by cost, ties in the
+     *         order they were found; an empty list if no chain exists
+     */
+    public List<ReferralCandidate> findAlternativeReferralPaths(UniversityStudent start,
+                                                                String targetCompany, int k) {
+        if (start == null || targetCompany == null || graph == null || k <= 0) {
             return Collections.emptyList();
         }
 
-        // Collect students with matching internship names
-        Set<UniversityStudent> targets = new HashSet<>();
-        for (UniversityStudent s : graph.getAllNodes()) {
-            for (String c : s.getPreviousInternships()) {
-                if (c != null && c.equalsIgnoreCase(targetCompany)) {
-                    targets.add(s);
-                    break;
+        int[] targets = targetIds(targetCompany);
+        if (targets.length == 0) return Collections.emptyList();
+
+        CsrGraph csr = graph.toCsr();
+        int source = csr.getId(start);
+        if (source < 0) return Collections.emptyList();
+
+        SearchContext ctx = CONTEXTS.get();
+        ctx.ensureCapacity(csr.size());
+        ctx.setTargets(null, targets);
+        IndexedMinHeap heap = ctx.heap();
+
+        int end = bucketSearch(csr, source, ctx, true);
+        if (end < 0) return Collections.emptyList();
+        Chain first = new Chain(new int[] {source}, new int[] {0}).extend(0, end, ctx);
+
+        // Distance to the nearest intern: a cached table, or a reverse search from all
+        // interns given as much work as the forward search just did
+        int companyId = AttributeDictionary.COMPANIES.lookup(targetCompany);
+        ReferralDistanceTable table = (companyId == AttributeDictionary.NULL_ID)
+                ? null : cachedTable(companyId);
+        SearchContext toIntern = BACKWARD_CONTEXTS.get();
+        if (table == null) {
+            toIntern.begin(csr.size());
+            for (int t : targets) toIntern.offer(t, 0, -1);
+            drain(csr.transpose(), toIntern, false, Math.max(ctx.getSettledCount(), 1));
+        }
+
+        List<Chain> accepted = new ArrayList<>();
+        accepted.add(first);
+
+        PriorityQueue<Chain> candidates = new PriorityQueue<>(
+                Comparator.comparingInt(Chain::cost).thenComparingInt(c -> c.order));
+        Set<List<Integer>> seen = new HashSet<>();
+        seen.add(first.key());
+
+        int found = 0;
+
+        while (accepted.size() < k) {
+            Chain prev = accepted.get(accepted.size() - 1);
+
+            for (int i = 0; i + 1 < prev.ids.length; i++) {
+                // Edges leaving the spur node along accepted chains that share this root
+                ctx.clearBlocked();
+                for (Chain p : accepted) {
+                    if (p.ids.length > i + 1 && p.sharesRoot(prev, i)) ctx.block(p.ids[i + 1]);
                 }
+
+                Chain spur = spurSearch(csr, prev, i, ctx, heap, table, toIntern);
+                if (spur == null || !seen.add(spur.key())) continue;
+                spur.order = ++found;
+                candidates.add(spur);
+            }
+
+            if (candidates.isEmpty()) break;
+            accepted.add(candidates.poll());
+        }
+
+        List<ReferralCandidate> result = new ArrayList<>(accepted.size());
+        for (Chain c : accepted) {
+            List<UniversityStudent> path = new ArrayList<>(c.ids.length);
+            for (int id : c.ids) path.add(csr.getStudent(id));
+            result.add(new ReferralCandidate(path.get(path.size() - 1), c.cost(), path));
+        }
+        return result;
+    }
+
+    /**
+     * One spur search of Yen's algorithm: the cheapest chain that follows {@code root}
+     * up to its node at {@code spurIndex}, then continues to an intern without
+     * revisiting the root and without taking the edges out of the spur node to the
+     * ids blocked in {@code ctx}.
+     *
+     * @return the full chain, or {@code null} if there is none
+     */
+    private static Chain spurSearch(CsrGraph csr, Chain root, int spurIndex, SearchContext ctx,
+                                    IndexedMinHeap heap, ReferralDistanceTable table,
+                                    SearchContext toIntern) {
+        int spur = root.ids[spurIndex];
+        ctx.begin(csr.size());
+
+        // Root nodes before the spur count as settled, so the search never re-enters them
+        for (int r = 0; r < spurIndex; r++) ctx.settle(root.ids[r]);
+
+        int h = distanceToIntern(table, toIntern, spur);
+        if (h == UNREACHED) return null;
+        ctx.reach(spur, 0, -1);
+        heap.offer(spur, h);
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            ctx.settle(u);
+            if (ctx.isTarget(u)) return root.extend(spurIndex, u, ctx);
+
+            int d = ctx.dist(u);
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                int v = csr.target(e);
+                if (ctx.isSettled(v)) continue;
+                if (u == spur && ctx.isBlocked(v)) continue;
+
+                int dv = d + cost(csr.weight(e));
+                if (dv >= ctx.dist(v)) continue;
+
+                int hv = distanceToIntern(table, toIntern, v);
+                if (hv == UNREACHED) continue;
+                ctx.reach(v, dv, u);
+                heap.offer(v, dv + hv);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a lower bound on the cost from an id to the nearest intern: exact from
+     * the table if there is one, otherwise from the bounded reverse search left in
+     * {@code toIntern}. Ids that search did not settle are at least as far as its
+     * frontier, which stays a consistent bound; if the search ran out of nodes, they
+     * cannot reach an intern at all.
+     */
+    private static int distanceToIntern(ReferralDistanceTable table, SearchContext toIntern, int id) {
+        if (table == null) {
+            return toIntern.isSettled(id) ? toIntern.dist(id) : toIntern.peekDistance();
+        }
+        int d = table.distance(id);
+        return (d < 0) ? UNREACHED : d;
+    }
+
+    /**
+     * A referral chain as ids, with the cumulative cost at each of them.
+     */
+    private static final class Chain {
+        final int[] ids;
+        final int[] costs;
+
+        /** Discovery order among candidates, for deterministic tie-breaking. */
+        int order;
+
+        Chain(int[] ids, int[] costs) {
+            this.ids = ids;
+            this.costs = costs;
+        }
+
+        int cost() {
+            return costs[costs.length - 1];
+        }
+
+        /**
+         * Returns whether this chain starts with the same {@code length + 1} ids as another.
+         */
+        boolean sharesRoot(Chain other, int length) {
+            for (int r = 0; r <= length; r++) {
+                if (ids[r] != other.ids[r]) return false;
             }
+            return true;
         }
 
-        if (targets.isEmpty()) return Collections.emptyList();
+        /**
+         * Keeps this chain up to {@code spurIndex} and appends the spur path ending at
+         * {@code end}, read from the predecessors and distances of a spur search.
+         */
+        Chain extend(int spurIndex, int end, SearchContext ctx) {
+            int hops = 0;
+            for (int cur = end; cur >= 0; cur = ctx.pred(cur)) hops++;
 
-        // Initialize Dijkstra structures
-        Map<UniversityStudent, Double> dist = new HashMap<>();
-        Map<UniversityStudent, UniversityStudent> prev = new HashMap<>();
+            int[] newIds = Arrays.copyOf(ids, spurIndex + hops);
+            int[] newCosts = Arrays.copyOf(costs, spurIndex + hops);
+            int base = costs[spurIndex];
+            for (int cur = end, at = newIds.length - 1; cur >= 0; cur = ctx.pred(cur), at--) {
+                newIds[at] = cur;
+                newCosts[at] = base + ctx.dist(cur);
+            }
+            return new Chain(newIds, newCosts);
+        }
 
-        for (UniversityStudent s : graph.getAllNodes()) {
-            dist.put(s, Double.POSITIVE_INFINITY);
+        List<Integer> key() {
+            List<Integer> key = new ArrayList<>(ids.length);
+            for (int id : ids) key.add(id);
+            return key;
+        }
+    }
+
+    /**
+     * Runs Dial's algorithm from a single source. See
+     * {@link #bucketSearch(CsrGraph, int[], SearchContext, boolean)}.
+     */
+    static int bucketSearch(CsrGraph csr, int source, SearchContext ctx, boolean stopAtTarget) {
+        ctx.begin(csr.size());
+        ctx.offer(source, 0, -1);
+        return drain(csr, ctx, stopAtTarget, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Runs Dial's algorithm from a set of sources until the first target marked in
+     * {@code ctx} is settled, or until every reachable node is settled when
+     * {@code stopAtTarget} is {@code false}. Sources start at distance 0 and are
+     * settled in the order given. Distances and predecessors are left in {@code ctx}.
+     *
+     * <p>Nodes waiting in the queue sit in one of {@code MAX_COST + 1} buckets, chosen by
+     * {@code distance % (MAX_COST + 1)}. Every queued distance lies within
+     * {@code MAX_COST} of the one being settled, so buckets never mix distances. Each
+     * bucket is a doubly linked FIFO list threaded through the context's link arrays,
+     * which lets a node move to a closer bucket in O(1) (a true decrease-key).</p>
+     *
+     * @param csr the graph snapshot
+     * @param sources the ids to start from
+     * @param ctx the search context, whose targets must be set if {@code stopAtTarget}
+     * @param stopAtTarget whether to stop at the first target settled
+     * @return the id of the first target settled, or {@code -1} if none is reachable
+     *         or the search was exhaustive
+     */
+    static int bucketSearch(CsrGraph csr, int[] sources, SearchContext ctx, boolean stopAtTarget) {
+        ctx.begin(csr.size());
+        for (int source : sources) {
+            ctx.offer(source, 0, -1);
         }
-        dist.put(start, 0.0);
+        return drain(csr, ctx, stopAtTarget, Integer.MAX_VALUE);
+    }
 
-        PriorityQueue<UniversityStudent> pq =
-                new PriorityQueue<>(Comparator.comparingDouble(dist::get));
-        pq.add(start);
+    /**
+     * Settles queued nodes in distance order until {@code budget} nodes have been
+     * settled; the main loop of Dial's algorithm.
+     */
+    private static int drain(CsrGraph csr, SearchContext ctx, boolean stopAtTarget, int budget) {
+        while (ctx.getSettledCount() < budget && ctx.peekDistance() != UNREACHED) {
+            int current = ctx.peekDistance();
+            int u = ctx.poll();
 
-        // Main Dijkstra loop
-        while (!pq.isEmpty()) {
-            UniversityStudent u = pq.poll();
-            double d = dist.get(u);
+            // Early exit: the first target settled is the closest one
+            if (stopAtTarget && ctx.isTarget(u)) return u;
 
-            // Early exit: if u is a target, reconstruct the path
-            if (targets.contains(u)) {
-                return buildPath(prev, u);
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                int v = csr.target(e);
+                if (!ctx.isSettled(v)) ctx.offer(v, current + cost(csr.weight(e)), u);
             }
+        }
 
-            // Relax edges
-            for (StudentGraph.Edge e : graph.getNeighbors(u)) {
-                double cost = 10.0 - e.weight;
-                if (cost < 0) cost = 0;  // clamp to non-negative
-                double newDist = d + cost;
+        return -1;
+    }
 
-                if (newDist < dist.getOrDefault(e.neighbor, Double.POSITIVE_INFINITY)) {
-                    dist.put(e.neighbor, newDist);
-                    prev.put(e.neighbor, u);
+    /**
+     * Finds the cheapest referral chain between two given students with a
+     * bidirectional search.
+     *
+     * @param start the student from whom the chain begins
+     * @param target the student the chain should reach
+     * @return the students on the chain, including both ends; an empty list if
+     *         either student is not in the graph or no chain exists
+     */
+    public List<UniversityStudent> findPathTo(UniversityStudent start, UniversityStudent target) {
+        return findPathTo(start, target, PointToPoint.BIDIRECTIONAL);
+    }
 
-                    // Reinsert to simulate decrease-key
-                    pq.add(e.neighbor);
+    /**
+     * Finds the cheapest referral chain between two given students.
+     *
+     * <p>All three searches return a chain of the same, minimum, total cost; they differ
+     * in how much of the graph they settle on the way, which the calling thread can
+     * read back with {@link #getLastSettledCount()}. A plain search settles everything
+     * closer to the start than the target. A bidirectional search grows two balls of
+     * half the radius. ALT orders the search by cost so far plus a landmark lower
+     * bound on the cost still to go, which steers it towards the target; its
+     * landmark tables are built on first use for each graph version.</p>
+     *
+     * @param start the student from whom the chain begins
+     * @param target the student the chain should reach
+     * @param mode the search to run
+     * @return the students on the chain, including both ends; an empty list if
+     *         either student is not in the graph or no chain exists
+     */
+    public List<UniversityStudent> findPathTo(UniversityStudent start, UniversityStudent target,
+                                              PointToPoint mode) {
+        if (start == null || target == null || graph == null) return Collections.emptyList();
+
+        CsrGraph csr = graph.toCsr();
+        int s = csr.getId(start);
+        int t = csr.getId(target);
+        if (s < 0 || t < 0) return Collections.emptyList();
+
+        SearchContext ctx = CONTEXTS.get();
+        switch ((mode == null) ? PointToPoint.BIDIRECTIONAL : mode) {
+            case DIJKSTRA: {
+                ctx.ensureCapacity(csr.size());
+                ctx.setTargets(null, new int[] {t});
+                int found = bucketSearch(csr, s, ctx, true);
+                return (found < 0) ? Collections.emptyList() : buildPath(csr, ctx, found);
+            }
+            case ALT:
+                return altSearch(csr, s, t, landmarksFor(csr), ctx);
+            default:
+                return bidirectionalSearch(csr, s, t, ctx, BACKWARD_CONTEXTS.get());
+        }
+    }
+
+    /**
+     * Sets the number of landmarks {@link PointToPoint#ALT} searches use. More
+     * landmarks give tighter bounds but cost two full searches and 8 bytes per
+     * student each.
+     *
+     * @param count the number of landmarks, at least 1
+     */
+    public synchronized void setLandmarkCount(int count) {
+        this.landmarkCount = Math.max(count, 1);
+        this.landmarks = null;
+    }
+
+    /**
+     * Returns the number of nodes settled by the last search run on the calling
+     * thread, counting both halves of a bidirectional search.
+     *
+     * @return the settled node count
+     */
+    public int getLastSettledCount() {
+        return CONTEXTS.get().getSettledCount();
+    }
+
+    /**
+     * Returns the landmark tables for the current graph version, building them if needed.
+     */
+    private synchronized ReferralLandmarks landmarksFor(CsrGraph csr) {
+        long version = graph.getVersion();
+        if (landmarks == null || landmarks.getVersion() != version) {
+            landmarks = ReferralLandmarks.build(csr, landmarkCount, version);
+        }
+        return landmarks;
+    }
+
+    /**
+     * Bidirectional Dial search from {@code s} forward and from {@code t} backward.
+     *
+     * <p>The side whose queue has the smaller head distance settles next. Every edge
+     * relaxed towards a node the other side has reached closes a candidate chain, and
+     * the cheapest candidate {@code mu} is kept. Once the two head distances add up to
+     * at least {@code mu}, no unseen chain can be cheaper, and the chain is stitched
+     * from the forward predecessors up to the meeting edge and the backward
+     * predecessors (which point towards {@code t}) after it.</p>
+     */
+    private static List<UniversityStudent> bidirectionalSearch(CsrGraph csr, int s, int t,
+                                                               SearchContext fwd, SearchContext bwd) {
+        CsrGraph reverse = csr.transpose();
+        fwd.begin(csr.size());
+        bwd.begin(csr.size());
+        fwd.offer(s, 0, -1);
+        bwd.offer(t, 0, -1);
+
+        // Cheapest chain seen so far, through the edge meetFrom → meetTo
+        int mu = (s == t) ? 0 : UNREACHED;
+        int meetFrom = s, meetTo = -1;
+
+        while (mu > 0) {
+            int df = fwd.peekDistance();
+            int db = bwd.peekDistance();
+            if (df == UNREACHED || db == UNREACHED || (long) df + db >= mu) break;
+
+            boolean forward = df <= db;
+            SearchContext side = forward ? fwd : bwd;
+            SearchContext other = forward ? bwd : fwd;
+            CsrGraph g = forward ? csr : reverse;
+
+            int d = side.peekDistance();
+            int u = side.poll();
+            for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++) {
+                int v = g.target(e);
+                int dv = d + cost(g.weight(e));
+                if (!side.isSettled(v)) side.offer(v, dv, u);
+
+                int rest = other.dist(v);
+                if (rest != UNREACHED && dv + rest < mu) {
+                    mu = dv + rest;
+                    meetFrom = forward ? u : v;
+                    meetTo = forward ? v : u;
                 }
             }
         }
 
-        // No referral path found
+        fwd.addSettled(bwd.getSettledCount());
+        if (mu == UNREACHED) return Collections.emptyList();
+
+        List<UniversityStudent> path = buildPath(csr, fwd, meetFrom);
+        for (int cur = meetTo; cur >= 0; cur = bwd.pred(cur)) {
+            path.add(csr.getStudent(cur));
+        }
+        return path;
+    }
+
+    /**
+     * A* search from {@code s} to {@code t} keyed by distance plus landmark bound,
+     * on an indexed heap. Nodes the landmarks prove unable to reach {@code t} are
+     * never queued.
+     */
+    private static List<UniversityStudent> altSearch(CsrGraph csr, int s, int t,
+                                                     ReferralLandmarks lm, SearchContext ctx) {
+        ctx.begin(csr.size());
+        IndexedMinHeap heap = ctx.heap();
+
+        int h = lm.lowerBound(s, t);
+        if (h == UNREACHED) return Collections.emptyList();
+        ctx.reach(s, 0, -1);
+        heap.offer(s, h);
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            ctx.settle(u);
+            if (u == t) return buildPath(csr, ctx, t);
+
+            int d = ctx.dist(u);
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                int v = csr.target(e);
+                if (ctx.isSettled(v)) continue;
+
+                int dv = d + cost(csr.weight(e));
+                if (dv >= ctx.dist(v)) continue;
+
+                int hv = lm.lowerBound(v, t);
+                if (hv == UNREACHED) continue;
+                ctx.reach(v, dv, u);
+                heap.offer(v, dv + hv);
+            }
+        }
+
         return Collections.emptyList();
     }
 
     /**
-     * Reconstructs a shortest path from the starting node to a given end node
-     * using predecessor pointers generated by Dijkstra's algorithm.
+     * Converts a connection strength into a traversal cost: {@code 10 - weight},
+     * clamped to be non-negative.
      *
-     * @param prev a map from each node to its predecessor in the shortest path tree
-     * @param end the final node in the path
-     * @return a list representing the full path from start to end
+     * @param weight the connection strength
+     * @return the cost in {@code [0, MAX_COST]}
      */
-    private List<UniversityStudent> buildPath(
-            Map<UniversityStudent, UniversityStudent> prev,
-            UniversityStudent end) {
+    static int cost(int weight) {
+        return Math.max(0, MAX_COST - weight);
+    }
 
-        LinkedList<UniversityStudent> path = new LinkedList<>();
-        UniversityStudent cur = end;
+    /**
+     * Returns the ids of the students who interned at a company, ignoring case.
+     *
+     * @param company the company name
+     * @return the ids of matching students, ascending
+     */
+    private int[] targetIds(String company) {
+        int[] ids = new int[graph.idCapacity()];
+        int count = collectTargets(AttributeDictionary.COMPANIES.lookup(company),
+                company.equalsIgnoreCase("None"), company, ids);
+        return Arrays.copyOf(ids, count);
+    }
 
-        while (cur != null) {
-            path.addFirst(cur);
-            cur = prev.get(cur);
+    /**
+     * Writes the ids of the students who interned at a company into {@code out}.
+     *
+     * <p>Normally this is a copy of the company's postings in the graph's company
+     * index. "None" is a placeholder the index skips, so a search for it falls back
+     * to scanning every student, which keeps the original matching rules for that
+     * one value.</p>
+     *
+     * @param companyId the company's dictionary id, or {@code NULL_ID}
+     * @param placeholder whether the company name is "None", in any case
+     * @param company the company name
+     * @param out buffer of at least {@link StudentGraph#idCapacity()} entries
+     * @return the number of ids written, ascending
+     */
+    private int collectTargets(int companyId, boolean placeholder, String company, int[] out) {
+        if (!placeholder) return graph.getInternIds(companyId, out);
+
+        int count = 0;
+        for (int id = 0; id < graph.idCapacity(); id++) {
+            UniversityStudent s = graph.getStudentById(id);
+            if (s != null && hasInternship(s, company)) out[count++] = id;
         }
+        return count;
+    }
 
-        return path;
+    /**
+     * Returns whether a student lists the company among their internships, ignoring case.
+     *
+     * @param s the student
+     * @param company the company name
+     * @return {@code true} if one of the student's internships matches
+     */
+    private static boolean hasInternship(UniversityStudent s, String company) {
+        for (String c : s.getPreviousInternships()) {
+            if (c != null && c.equalsIgnoreCase(company)) return true;
+        }
+        return false;
     }
-}
 
+    /**
+     * Reconstructs the path ending at {@code end} from the predecessors of a search.
+     *
+     * @param csr the graph snapshot the search ran on
+     * @param ctx the context holding the search's predecessors
+     * @param end the id of the final node
+     * @return the students on the path, from start to end
+     */
+    private static List<UniversityStudent> buildPath(CsrGraph csr, SearchContext ctx, int end) {
+        int length = 0;
+        for (int cur = end; cur >= 0; cur = ctx.pred(cur)) length++;
+
+        UniversityStudent[] path = new UniversityStudent[length];
+        for (int cur = end; cur >= 0; cur = ctx.pred(cur)) {
+            path[--length] = csr.getStudent(cur);
+        }
+        return new ArrayList<>(Arrays.asList(path));
+    }
+
+    /**
+     * Answers many referral queries at once, optionally on several threads.
+     *
+     * <p>Queries are grouped by company, so each company's targets are resolved (and
+     * its distance table looked up) once per batch rather than once per query, and
+     * the queries of a group run back to back. Every worker thread searches with its
+     * own generation-stamped {@link SearchContext}, which keeps the target marks of
+     * the group it is working through, so a search touches only the nodes it reaches.
+     * With {@code parallelism > 1} the grouped queries are split into blocks that a
+     * dedicated {@link ForkJoinPool} works through. Every query writes only its own
+     * result slot, so the results are identical to answering the queries one by one
+     * with {@link #findReferralPath(UniversityStudent, String)}.</p>
+     *
+     * <p>The {@link SearchStrategy#PRIORITY_QUEUE} strategy answers the queries one
+     * after another on the calling thread.</p>
+     *
+     * @param queries the queries to answer; {@code null} entries get an empty path
+     * @param parallelism the number of worker threads; values below 1 are treated as 1
+     * @return the paths in input order, with the time the batch took
+     */
+    public ReferralBatchResult findReferralPaths(List<ReferralQuery> queries, int parallelism) {
+        long began = System.nanoTime();
+        int n = (queries == null) ? 0 : queries.size();
+
+        List<List<UniversityStudent>> paths = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) paths.add(Collections.emptyList());
+
+        if (graph == null || n == 0) {
+            return new ReferralBatchResult(paths, System.nanoTime() - began);
+        }
+
+        if (strategy == SearchStrategy.PRIORITY_QUEUE) {
+            for (int i = 0; i < n; i++) {
+                ReferralQuery q = queries.get(i);
+                if (q != null) paths.set(i, findReferralPath(q.start, q.company));
+            }
+            return new ReferralBatchResult(paths, System.nanoTime() - began);
+        }
+
+        CsrGraph csr = graph.toCsr();
+
+        // Group queries by company, in order of first appearance
+        Map<String, QueryGroup> groups = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            ReferralQuery q = queries.get(i);
+            if (q == null || q.start == null || q.company == null) continue;
+            groups.computeIfAbsent(AttributeDictionary.fold(q.company), k -> new QueryGroup(q.company))
+                  .add(i);
+        }
+
+        int[] order = new int[n];
+        QueryGroup[] groupOf = new QueryGroup[n];
+        int count = 0;
+        for (QueryGroup g : groups.values()) {
+            g.targets = targetIds(g.company);
+            if (g.targets.length == 0) continue;
+
+            int companyId = AttributeDictionary.COMPANIES.lookup(g.company);
+            if (companyId != AttributeDictionary.NULL_ID) {
+                g.table = tableFor(companyId, csr, g.size, false);
+            }
+            for (int k = 0; k < g.size; k++) {
+                order[count] = g.queries[k];
+                groupOf[count] = g;
+                count++;
+            }
+        }
+
+        BatchTask task = new BatchTask(csr, queries, order, groupOf, paths, 0, count,
+                Math.max(1, count / (Math.max(parallelism, 1) * 16)));
+        if (parallelism <= 1) {
+            task.compute();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(task);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        return new ReferralBatchResult(paths, System.nanoTime() - began);
+    }
+
+    /**
+     * The queries of one batch that ask about the same company.
+     */
+    private static class QueryGroup {
+        final String company;
+        int[] queries = new int[4];
+        int size;
+
+        /** Ids of the company's interns. */
+        int[] targets;
+
+        /** The company's distance table, or {@code null} to search. */
+        ReferralDistanceTable table;
+
+        QueryGroup(String company) {
+            this.company = company;
+        }
+
+        void add(int query) {
+            if (size == queries.length) queries = Arrays.copyOf(queries, size * 2);
+            queries[size++] = query;
+        }
+    }
+
+    /**
+     * Fork/join task that answers a contiguous block of the grouped batch order.
+     * Each query's path is stored in the query's own slot of the shared result list,
+     * which is pre-filled, so concurrent {@code set} calls never resize it.
+     */
+    private static class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CsrGraph csr;
+        private final List<ReferralQuery> queries;
+        private final int[] order;
+        private final QueryGroup[] groupOf;
+        private final List<List<UniversityStudent>> paths;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        BatchTask(CsrGraph csr, List<ReferralQuery> queries, int[] order, QueryGroup[] groupOf,
+                  List<List<UniversityStudent>> paths, int from, int to, int grain) {
+            this.csr = csr;
+            this.queries = queries;
+            this.order = order;
+            this.groupOf = groupOf;
+            this.paths = paths;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > grain) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BatchTask(csr, queries, order, groupOf, paths, from, mid, grain),
+                          new BatchTask(csr, queries, order, groupOf, paths, mid, to, grain));
+                return;
+            }
+
+            SearchContext ctx = CONTEXTS.get();
+            ctx.ensureCapacity(csr.size());
+
+            for (int k = from; k < to; k++) {
+                int i = order[k];
+                QueryGroup g = groupOf[k];
+                int source = csr.getId(queries.get(i).start);
+                if (source < 0) continue;
+
+                if (g.table != null) {
+                    paths.set(i, g.table.path(csr, source));
+                    continue;
+                }
+
+                // Re-marks targets only when this thread moves on to another company
+                ctx.setTargets(g, g.targets);
+                int found = bucketSearch(csr, source, ctx, true);
+                if (found >= 0) paths.set(i, buildPath(csr, ctx, found));
+            }
+        }
+    }
+
+    /**
+     * Finds the shortest referral path starting from the student with the given name.
+     * The name is resolved through the graph's name index, ignoring case.
+     *
+     * @param startName the name of the student from whom the search begins
+     * @param targetCompany the company for which a referral is sought
+     * @return the referral path including both start and target; an empty list if
+     *         no student has that name or no path exists
+     */
+    public List<UniversityStudent> findReferralPath(String startName, String targetCompany) {
+        if (startName == null || graph == null) return Collections.emptyList();
+        return findReferralPath(graph.getStudent(startName), targetCompany);
+    }
+}
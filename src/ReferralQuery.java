@@ -0,0 +1,30 @@
+package src;
+
+/**
+ * One referral request for {@link ReferralPathFinder#findReferralPaths}: a starting
+ * student and the company a referral is sought at.
+ */
+public class ReferralQuery {
+
+    /** The student from whom the referral search begins. */
+    public final UniversityStudent start;
+
+    /** The company for which a referral is sought. */
+    public final String company;
+
+    /**
+     * Creates a referral query.
+     *
+     * @param start the student from whom the referral search begins
+     * @param company the company for which a referral is sought
+     */
+    public ReferralQuery(UniversityStudent start, String company) {
+        this.start = start;
+        this.company = company;
+    }
+
+    @Override
+    public String toString() {
+        return (start == null ? "null" : start.name) + " → " + company;
+    }
+}
@@ -0,0 +1,87 @@
+package src;
+
+import java.util.*;
+
+/**
+ * The outcome of a {@link StableRoommates} matching: whether the roommate pairs are
+ * stable, which students had to be set aside to get there, and how many blocking
+ * pairs the final assignment still has.
+ *
+ * <p>A <em>blocking pair</em> is two students who each listed the other and who
+ * would both rather room together than with their assigned roommates, where having
+ * no roommate is worse than any listed one. An assignment is stable when it has
+ * no blocking pair.</p>
+ */
+public class RoommateResult {
+
+    /** Whether a stable matching exists over all participating students. */
+    private final boolean stable;
+
+    /** Students whose lists emptied during the matching, in the order they were excluded. */
+    private final List<UniversityStudent> excluded;
+
+    /** Number of roommate pairs assigned. */
+    private final int pairCount;
+
+    /** Number of blocking pairs in the final assignment. */
+    private final long blockingPairs;
+
+    /**
+     * Creates a matching result.
+     *
+     * @param stable whether a stable matching exists over all participating students
+     * @param excluded students whose lists emptied, in exclusion order
+     * @param pairCount number of roommate pairs assigned
+     * @param blockingPairs number of blocking pairs in the final assignment
+     */
+    public RoommateResult(boolean stable, List<UniversityStudent> excluded, int pairCount, long blockingPairs) {
+        this.stable = stable;
+        this.excluded = Collections.unmodifiableList(excluded);
+        this.pairCount = pairCount;
+        this.blockingPairs = blockingPairs;
+    }
+
+    /**
+     * Returns whether the preferences admit a stable matching. When they do, the
+     * assignment is one and has no blocking pairs.
+     *
+     * @return {@code true} if a stable matching exists over all students
+     */
+    public boolean isStable() {
+        return stable;
+    }
+
+    /**
+     * Returns the students the fallback set aside because their lists emptied. They
+     * are paired afterwards where an acceptable roommate was still free.
+     *
+     * @return an unmodifiable list, empty when the matching is stable
+     */
+    public List<UniversityStudent> getExcluded() {
+        return excluded;
+    }
+
+    /**
+     * Returns the number of roommate pairs assigned.
+     *
+     * @return the pair count
+     */
+    public int getPairCount() {
+        return pairCount;
+    }
+
+    /**
+     * Returns the number of blocking pairs left in the assignment.
+     *
+     * @return the blocking pair count; 0 when the matching is stable
+     */
+    public long getBlockingPairCount() {
+        return blockingPairs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RoommateResult[stable=%b, pairs=%d, excluded=%d, blocking=%d]",
+                stable, pairCount, excluded.size(), blockingPairs);
+    }
+}
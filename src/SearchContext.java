@@ -0,0 +1,355 @@
+package src;
+
+import java.util.*;
+
+/**
+ * Reusable scratch space for referral searches over a {@link CsrGraph}.
+ *
+ * <p>A search needs a distance, a predecessor and a settled flag per student id,
+ * plus the links of the bucket queue or an {@link IndexedMinHeap}. Allocating and clearing those arrays costs
+ * O(n) per search even when the search itself only touches a handful of nodes. A
+ * context instead keeps the arrays between searches and tags every entry with the
+ * generation of the search that wrote it: starting a new search just increments
+ * the generation, and entries from older generations read as unreached.</p>
+ *
+ * <p>Target marks have their own generation and a key, so a batch of searches for
+ * the same company marks the targets once and then reuses them.</p>
+ *
+ * <p>Blocked marks, for the edges a spur search of Yen's algorithm must not take,
+ * have a generation of their own as well.</p>
+ *
+ * <p>Arrays only grow, so once a context has seen the largest graph a search on it
+ * allocates nothing. A context is not thread-safe; {@link ReferralPathFinder} keeps
+ * one per thread, and callers that manage their own threads can pass their own to
+ * {@link ReferralPathFinder#findReferralPath(UniversityStudent, String, SearchContext)}.</p>
+ */
+public final class SearchContext {
+
+    /** Distance of a node that has not been reached in the current search. */
+    static final int UNREACHED = Integer.MAX_VALUE;
+
+    /** Generation of the current search. */
+    private int generation;
+
+    /** Generation that wrote each id's distance and predecessor. */
+    private int[] reached = new int[0];
+
+    /** Generation in which each id was settled. */
+    private int[] settled = new int[0];
+
+    /** Distance of each id, valid where {@link #reached} matches. */
+    private int[] dist = new int[0];
+
+    /** Predecessor of each id, valid where {@link #reached} matches. */
+    private int[] pred = new int[0];
+
+    /** Bucket queue links. */
+    private int[] next = new int[0];
+    private int[] prev = new int[0];
+
+    /** First and last id of each bucket, {@code -1} when empty. */
+    private final int[] head = new int[BUCKETS];
+    private final int[] tail = new int[BUCKETS];
+
+    /** Number of buckets: one per possible edge cost. */
+    private static final int BUCKETS = ReferralPathFinder.MAX_COST + 1;
+
+    /** Number of ids waiting in the bucket queue. */
+    private int queued;
+
+    /** Distance of the bucket the queue is currently draining. */
+    private int current;
+
+    /** Number of ids settled in the current search. */
+    private int settledCount;
+
+    /** Generation of the current target marks. */
+    private int targetGeneration;
+
+    /** Target generation that marked each id. */
+    private int[] targets = new int[0];
+
+    /** Identifies the target set currently marked, or {@code null}. */
+    private Object targetKey;
+
+    /** Generation of the current blocked marks. */
+    private int blockGeneration;
+
+    /** Block generation that marked each id. */
+    private int[] blocked = new int[0];
+
+    /** General-purpose id buffer, for example to collect target ids without allocating. */
+    int[] ids = new int[0];
+
+    /** Indexed heap for searches that cannot use the bucket queue. */
+    private final IndexedMinHeap heap = new IndexedMinHeap(0);
+
+    /**
+     * Creates an empty context; arrays grow on first use.
+     */
+    public SearchContext() {
+    }
+
+    /**
+     * Makes room for ids below {@code n}. Growing drops the current target marks.
+     *
+     * @param n the number of id slots needed
+     */
+    void ensureCapacity(int n) {
+        if (reached.length >= n) return;
+
+        int capacity = Math.max(n, reached.length + (reached.length >> 1));
+        reached = new int[capacity];
+        settled = new int[capacity];
+        dist = new int[capacity];
+        pred = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        targets = new int[capacity];
+        blocked = new int[capacity];
+        ids = new int[capacity];
+        heap.ensureCapacity(capacity);
+        generation = 0;
+        targetGeneration = 0;
+        targetKey = null;
+        blockGeneration = 0;
+    }
+
+    /**
+     * Starts a new search over ids below {@code n}: every id reads as unreached
+     * and unsettled, and the bucket queue is empty.
+     *
+     * @param n the number of id slots
+     */
+    void begin(int n) {
+        ensureCapacity(n);
+        if (++generation == Integer.MAX_VALUE) {
+            // Wrapped around; stale stamps could collide, so clear them once
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            generation = 1;
+        }
+        Arrays.fill(head, -1);
+        Arrays.fill(tail, -1);
+        heap.clear();
+        queued = 0;
+        current = 0;
+        settledCount = 0;
+    }
+
+    /**
+     * Returns this context's indexed heap, emptied by every {@link #begin}.
+     *
+     * @return the heap, with room for every id below the capacity
+     */
+    IndexedMinHeap heap() {
+        return heap;
+    }
+
+    /**
+     * Marks the target ids of the following searches. If {@code key} is not
+     * {@code null} and matches the key of the current marks, nothing is done.
+     *
+     * @param key identifies the target set, or {@code null} to always re-mark
+     * @param ids the target ids, all below the capacity
+     */
+    void setTargets(Object key, int[] ids) {
+        setTargets(key, ids, ids.length);
+    }
+
+    /**
+     * Marks the first {@code count} entries of {@code ids} as the targets of the
+     * following searches. See {@link #setTargets(Object, int[])}.
+     */
+    void setTargets(Object key, int[] ids, int count) {
+        if (key != null && key == targetKey) return;
+
+        if (++targetGeneration == Integer.MAX_VALUE) {
+            Arrays.fill(targets, 0);
+            targetGeneration = 1;
+        }
+        for (int k = 0; k < count; k++) {
+            if (ids[k] < targets.length) targets[ids[k]] = targetGeneration;
+        }
+        targetKey = key;
+    }
+
+    /**
+     * Returns whether an id is one of the current targets.
+     *
+     * @param id the student id
+     * @return {@code true} if the id was marked by the last {@link #setTargets} call
+     */
+    boolean isTarget(int id) {
+        return targets[id] == targetGeneration;
+    }
+
+    /**
+     * Unblocks every id. Blocked marks are independent of searches and targets, so
+     * they survive {@link #begin} until cleared again.
+     */
+    void clearBlocked() {
+        if (++blockGeneration == Integer.MAX_VALUE) {
+            Arrays.fill(blocked, 0);
+            blockGeneration = 1;
+        }
+    }
+
+    /**
+     * Blocks an id until the next {@link #clearBlocked}; marking it again is harmless.
+     *
+     * @param id the student id, below the capacity
+     */
+    void block(int id) {
+        blocked[id] = blockGeneration;
+    }
+
+    /**
+     * Returns whether an id is blocked. Only meaningful after {@link #clearBlocked}.
+     *
+     * @param id the student id
+     * @return {@code true} if the id was blocked since the last {@link #clearBlocked}
+     */
+    boolean isBlocked(int id) {
+        return blocked[id] == blockGeneration;
+    }
+
+    /**
+     * Returns the distance of an id in the current search.
+     *
+     * @param id the student id
+     * @return the tentative or final distance, or {@link #UNREACHED}
+     */
+    int dist(int id) {
+        return (reached[id] == generation) ? dist[id] : UNREACHED;
+    }
+
+    /**
+     * Returns the predecessor of a reached id in the current search.
+     *
+     * @param id the student id
+     * @return the predecessor, or {@code -1} at a source
+     */
+    int pred(int id) {
+        return pred[id];
+    }
+
+    /**
+     * Records a distance and predecessor for an id without queueing it, for
+     * searches that keep their own priority queue.
+     */
+    void reach(int id, int distance, int predecessor) {
+        reached[id] = generation;
+        dist[id] = distance;
+        pred[id] = predecessor;
+    }
+
+    /**
+     * Returns whether an id has been settled in the current search.
+     */
+    boolean isSettled(int id) {
+        return settled[id] == generation;
+    }
+
+    /**
+     * Marks an id as settled without going through the bucket queue, for searches
+     * that keep their own priority queue.
+     */
+    void settle(int id) {
+        settled[id] = generation;
+        settledCount++;
+    }
+
+    /**
+     * Adds work done by a companion search (such as the backward half of a
+     * bidirectional search) to the settled count.
+     */
+    void addSettled(int count) {
+        settledCount += count;
+    }
+
+    /**
+     * Returns the number of ids settled since the search began.
+     *
+     * @return the settled count
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Offers a distance for an id. If it improves on the id's current distance the id
+     * is (re)queued in the matching bucket, moving out of its old bucket in O(1).
+     * Distances must not be below the one currently being settled, and at most
+     * {@link ReferralPathFinder#MAX_COST} above it.
+     *
+     * @param id the student id
+     * @param distance the new tentative distance
+     * @param predecessor the id it was reached from, or {@code -1} at a source
+     * @return {@code true} if the distance improved
+     */
+    boolean offer(int id, int distance, int predecessor) {
+        int old = dist(id);
+        if (distance >= old) return false;
+
+        if (old == UNREACHED) {
+            queued++;
+        } else {
+            unlink(id, old % BUCKETS);
+        }
+        reach(id, distance, predecessor);
+        append(id, distance % BUCKETS);
+        return true;
+    }
+
+    /**
+     * Returns the smallest distance waiting in the queue.
+     *
+     * @return the distance of the next id {@link #poll} would return, or
+     *         {@link #UNREACHED} if the queue is empty
+     */
+    int peekDistance() {
+        if (queued == 0) return UNREACHED;
+        // Advance to the next non-empty bucket
+        while (head[current % BUCKETS] < 0) current++;
+        return current;
+    }
+
+    /**
+     * Removes the closest queued id, in FIFO order among equal distances, and marks
+     * it settled. The queue must not be empty.
+     *
+     * @return the settled id
+     */
+    int poll() {
+        int bucket = peekDistance() % BUCKETS;
+        int u = head[bucket];
+        unlink(u, bucket);
+        queued--;
+        settled[u] = generation;
+        settledCount++;
+        return u;
+    }
+
+    /**
+     * Appends an id to the tail of a bucket.
+     */
+    private void append(int v, int bucket) {
+        next[v] = -1;
+        prev[v] = tail[bucket];
+        if (tail[bucket] < 0) {
+            head[bucket] = v;
+        } else {
+            next[tail[bucket]] = v;
+        }
+        tail[bucket] = v;
+    }
+
+    /**
+     * Removes an id from a bucket.
+     */
+    private void unlink(int v, int bucket) {
+        if (prev[v] < 0) head[bucket] = next[v]; else next[prev[v]] = next[v];
+        if (next[v] < 0) tail[bucket] = prev[v]; else prev[next[v]] = prev[v];
+    }
+}
@@ -0,0 +1,420 @@
+package src;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A maximum-connection spanning forest of a {@link StudentGraph}: in every connected
+ * component, the tree whose edges have the largest total connection strength.
+ *
+ * <p>Weight-0 edges do not connect students, and ties between equally strong edges
+ * are broken by endpoint ids as described in {@link ForestEdges}, so the forest of
+ * a graph is unique.</p>
+ *
+ * <p>Besides the tree edges, a forest records the order in which Prim's algorithm
+ * reaches the students of each component. Components are listed starting with the
+ * one that holds the chosen start student, followed by the others in the order of
+ * their smallest id; each of those is grown from that smallest id.
+ * {@link PodFormation} cuts this order into pods.</p>
+ *
+ * <p>The forest can be built by either {@link Engine}; both produce the same tree
+ * edges and the same visit order.</p>
+ */
+public final class SpanningForest {
+
+    /**
+     * Algorithms for building the forest.
+     */
+    public enum Engine {
+        /**
+         * Prim's algorithm over all edges, one tree per component, with the components
+         * grown in parallel.
+         */
+        PRIM,
+
+        /**
+         * Kruskal's algorithm over the bucket-sorted edges with a {@link UnionFind},
+         * stopping as soon as the forest spans the graph. The visit order is then
+         * recovered by running Prim over the tree edges alone, which reaches the
+         * students in the same order as Prim over the whole graph because every edge
+         * Prim picks belongs to the forest. Suited to a dense giant component, where
+         * Prim's heap work dominates.
+         */
+        KRUSKAL
+    }
+
+    /** The snapshot the forest was built on. */
+    private final CsrGraph csr;
+
+    /** Tree parent of each id, or {@code -1} for roots and empty id slots. */
+    private final int[] parent;
+
+    /** Students in the order they were reached, component by component. */
+    private final int[] order;
+
+    /** Component {@code k} occupies {@code order[starts[k]]} to {@code order[starts[k + 1] - 1]}. */
+    private final int[] starts;
+
+    /** Sum of the weights of the tree edges. */
+    private final long totalWeight;
+
+    private SpanningForest(CsrGraph csr, int[] parent, int[] order, int[] starts, long totalWeight) {
+        this.csr = csr;
+        this.parent = parent;
+        this.order = order;
+        this.starts = starts;
+        this.totalWeight = totalWeight;
+    }
+
+    /**
+     * Grows the forest with Prim's algorithm on the calling thread.
+     *
+     * @param csr the graph snapshot
+     * @param start the id to grow the first tree from, or {@code -1} for the smallest id
+     * @return the spanning forest
+     */
+    static SpanningForest prim(CsrGraph csr, int start) {
+        return prim(csr, start, 1);
+    }
+
+    /**
+     * Builds the forest with the given engine.
+     *
+     * @param csr the graph snapshot
+     * @param start the id to grow the first tree from, or {@code -1} for the smallest id
+     * @param engine the algorithm to use; {@code null} means {@link Engine#PRIM}
+     * @param parallelism the number of worker threads; values below 1 are treated as 1
+     * @return the spanning forest
+     */
+    static SpanningForest build(CsrGraph csr, int start, Engine engine, int parallelism) {
+        return (engine == Engine.KRUSKAL) ? kruskal(csr, start, parallelism) : prim(csr, start, parallelism);
+    }
+
+    /**
+     * Builds the forest with Kruskal's algorithm: edges are taken strongest first in
+     * rank order and kept when they join two different sets of a {@link UnionFind}.
+     * The edge sort is a parallel bucket sort, so apart from the final pass over the
+     * O(V) tree edges the cost is linear in E.
+     *
+     * @param csr the graph snapshot
+     * @param start the id to grow the first tree from, or {@code -1} for the smallest id
+     * @param parallelism the number of worker threads; values below 1 are treated as 1
+     * @return the spanning forest, identical to {@link #prim(CsrGraph, int, int)}
+     */
+    static SpanningForest kruskal(CsrGraph csr, int start, int parallelism) {
+        ForestEdges edges = ForestEdges.of(csr, parallelism);
+        int n = csr.size();
+
+        int live = 0;
+        for (int id = 0; id < n; id++) {
+            if (csr.getStudent(id) != null) live++;
+        }
+
+        UnionFind sets = new UnionFind(n);
+        int[] tree = new int[Math.max(live - 1, 0)];
+        int count = 0;
+        for (int r = 0; r < edges.size() && count < tree.length; r++) {
+            if (sets.union(edges.lo[r], edges.hi[r])) tree[count++] = r;
+        }
+
+        return grow(csr, edges.subset(tree, count), sets, start, parallelism);
+    }
+
+    /**
+     * Grows the forest with Prim's algorithm on an {@link IndexedMinHeap} keyed by
+     * edge rank, in O(E log V). Each student is queued at most once and its key is
+     * lowered in place when a stronger edge reaches it.
+     *
+     * <p>Components are found first with a {@link UnionFind} pass over the edges,
+     * which are ranked with the bucket sort of {@link ForestEdges}.
+     * Every component then gets its own slice of the visit order and is grown
+     * independently; with {@code parallelism > 1} the components are split into
+     * blocks of similar size that a dedicated {@link ForkJoinPool} works through,
+     * so one giant component runs alongside thousands of small ones. The result does
+     * not depend on the parallelism.</p>
+     *
+     * @param csr the graph snapshot
+     * @param start the id to grow the first tree from, or {@code -1} for the smallest id
+     * @param parallelism the number of worker threads; values below 1 are treated as 1
+     * @return the spanning forest
+     */
+    static SpanningForest prim(CsrGraph csr, int start, int parallelism) {
+        ForestEdges edges = ForestEdges.of(csr, parallelism);
+        UnionFind sets = new UnionFind(csr.size());
+        for (int r = 0; r < edges.size(); r++) {
+            sets.union(edges.lo[r], edges.hi[r]);
+        }
+        return grow(csr, edges, sets, start, parallelism);
+    }
+
+    /**
+     * Runs Prim's algorithm over every component of {@code sets}, in parallel.
+     */
+    private static SpanningForest grow(CsrGraph csr, ForestEdges edges, UnionFind sets,
+                                       int start, int parallelism) {
+        Components components = Components.of(csr, sets, start);
+        int n = csr.size();
+
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+        boolean[] done = new boolean[n];
+        int[] order = new int[components.members.length];
+        long[] weights = new long[components.count];
+
+        PrimTask task = new PrimTask(edges, components, parent, done, order, weights, 0, components.count,
+                Math.max(1, order.length / (Math.max(parallelism, 1) * 16)));
+        if (parallelism <= 1) {
+            task.compute();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(task);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        long total = 0;
+        for (long w : weights) total += w;
+        return new SpanningForest(csr, parent, order,
+                Arrays.copyOf(components.starts, components.count + 1), total);
+    }
+
+    /**
+     * The connected components of a snapshot, in forest order, with their members
+     * grouped in ascending id order.
+     */
+    static class Components {
+        /** Number of components. */
+        int count;
+
+        /** Component {@code k} owns {@code members[starts[k]]} to {@code members[starts[k + 1] - 1]}. */
+        int[] starts;
+
+        /** Ids grouped by component. */
+        int[] members;
+
+        /** Position of each id within its component's slice of {@link #members}. */
+        int[] local;
+
+        /** Id each component's tree is grown from. */
+        int[] roots;
+
+        static Components of(CsrGraph csr, UnionFind sets, int start) {
+            int n = csr.size();
+
+            // Number components by the set's smallest id, with the start's set first
+            int[] label = new int[n];
+            Arrays.fill(label, -1);
+            int[] componentOf = new int[n];
+            int[] roots = new int[n];
+            int[] sizes = new int[n + 1];
+            int count = 0;
+
+            if (start >= 0 && start < n && csr.getStudent(start) != null) {
+                label[sets.find(start)] = count;
+                roots[count++] = start;
+            }
+            int live = 0;
+            for (int id = 0; id < n; id++) {
+                if (csr.getStudent(id) == null) continue;
+                int set = sets.find(id);
+                if (label[set] < 0) {
+                    label[set] = count;
+                    roots[count++] = id;
+                }
+                componentOf[id] = label[set];
+                sizes[label[set] + 1]++;
+                live++;
+            }
+
+            Components c = new Components();
+            c.count = count;
+            c.starts = sizes;
+            for (int k = 0; k < count; k++) {
+                c.starts[k + 1] += c.starts[k];
+            }
+            c.members = new int[live];
+            c.local = new int[n];
+            c.roots = roots;
+
+            int[] fill = Arrays.copyOf(c.starts, count);
+            for (int id = 0; id < n; id++) {
+                if (csr.getStudent(id) == null) continue;
+                int k = componentOf[id];
+                c.local[id] = fill[k] - c.starts[k];
+                c.members[fill[k]++] = id;
+            }
+            return c;
+        }
+    }
+
+    /**
+     * Fork/join task that grows the trees of a contiguous block of components. Each
+     * component writes only its own ids' parents and its own slice of the visit order.
+     */
+    private static class PrimTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        /** Per-thread heap over component-local ids, reused across components. */
+        private static final ThreadLocal<IndexedMinHeap> HEAPS =
+                ThreadLocal.withInitial(() -> new IndexedMinHeap(0));
+
+        private final ForestEdges edges;
+        private final Components components;
+        private final int[] parent;
+        private final boolean[] done;
+        private final int[] order;
+        private final long[] weights;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        PrimTask(ForestEdges edges, Components components, int[] parent, boolean[] done,
+                 int[] order, long[] weights, int from, int to, int grain) {
+            this.edges = edges;
+            this.components = components;
+            this.parent = parent;
+            this.done = done;
+            this.order = order;
+            this.weights = weights;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            int[] starts = components.starts;
+            if (to - from > 1 && starts[to] - starts[from] > grain) {
+                // Split where half the students are, so a giant component ends up alone
+                int half = (starts[from] + starts[to]) >>> 1;
+                int mid = Arrays.binarySearch(starts, from, to, half);
+                mid = (mid >= 0) ? mid : -mid - 1;
+                mid = Math.min(Math.max(mid, from + 1), to - 1);
+                invokeAll(new PrimTask(edges, components, parent, done, order, weights, from, mid, grain),
+                          new PrimTask(edges, components, parent, done, order, weights, mid, to, grain));
+                return;
+            }
+
+            IndexedMinHeap heap = HEAPS.get();
+            for (int k = from; k < to; k++) {
+                grow(k, heap);
+            }
+        }
+
+        /**
+         * Runs Prim's algorithm over one component. Heap ids are positions within the
+         * component, and each key is the rank of the strongest edge into the tree so far.
+         */
+        private void grow(int k, IndexedMinHeap heap) {
+            int base = components.starts[k];
+            int size = components.starts[k + 1] - base;
+            int[] members = components.members;
+            int[] local = components.local;
+            heap.ensureCapacity(size);
+
+            int reached = base;
+            long total = 0;
+            heap.offer(local[components.roots[k]], -1);
+
+            while (!heap.isEmpty()) {
+                int rank = heap.peekKey();
+                int u = members[base + heap.poll()];
+                done[u] = true;
+                order[reached++] = u;
+                if (rank >= 0) total += edges.weight[rank];
+
+                for (int s = edges.offsets[u]; s < edges.offsets[u + 1]; s++) {
+                    int v = edges.neighbors[s];
+                    if (done[v]) continue;
+
+                    // Lower ranks are stronger edges; offer keeps the strongest
+                    if (heap.offer(local[v], edges.ranks[s])) parent[v] = u;
+                }
+            }
+            weights[k] = total;
+        }
+    }
+
+    /**
+     * Returns the snapshot the forest was built on.
+     *
+     * @return the CSR snapshot
+     */
+    public CsrGraph getCsr() {
+        return csr;
+    }
+
+    /**
+     * Returns the number of connected components, counting isolated students.
+     *
+     * @return the number of trees in the forest
+     */
+    public int getComponentCount() {
+        return starts.length - 1;
+    }
+
+    /**
+     * Returns the ids of one component in the order they were reached.
+     *
+     * @param k the component index, in the forest's component order
+     * @return the component's ids, starting with its root
+     */
+    public int[] getComponent(int k) {
+        return Arrays.copyOfRange(order, starts[k], starts[k + 1]);
+    }
+
+    /**
+     * Returns every id in the forest in the order they were reached.
+     *
+     * @return the ids, component by component
+     */
+    public int[] getOrder() {
+        return order.clone();
+    }
+
+    /**
+     * Returns the tree parent of a student.
+     *
+     * @param id the student id
+     * @return the parent id, or {@code -1} for a root or an empty id slot
+     */
+    public int getParent(int id) {
+        return parent[id];
+    }
+
+    /**
+     * Returns the number of tree edges, which is the number of students minus the
+     * number of components.
+     *
+     * @return the edge count
+     */
+    public int getEdgeCount() {
+        return order.length - getComponentCount();
+    }
+
+    /**
+     * Returns the total connection strength of the tree edges.
+     *
+     * @return the sum of the tree edge weights
+     */
+    public long getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * Returns the offset in {@link #order} of component {@code k}.
+     */
+    int componentStart(int k) {
+        return starts[k];
+    }
+
+    /**
+     * Returns the id reached at a given position of the visit order.
+     */
+    int orderAt(int position) {
+        return order[position];
+    }
+}
@@ -0,0 +1,475 @@
+package src;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Assigns roommates with Irving's stable-roommates algorithm, which, unlike
+ * {@link GaleShapley}, treats roommate matching as the one-sided problem it is:
+ * every student both proposes and receives proposals, and the result is stable
+ * whenever the preferences allow it.
+ *
+ * <p>Two students are acceptable to each other only when each lists the other;
+ * entries naming unknown students, the student themselves, or someone who did not
+ * list them back are ignored, as are repeated entries after the first. A student
+ * with no acceptable roommate left stays unpaired.</p>
+ *
+ * <p>The algorithm runs in two phases over a preference table kept as flat int
+ * arrays, one slot per acceptable entry. Every slot knows the matching slot in the
+ * other student's list, so removing a pair from both lists is O(1), and each
+ * list's first, second and last live entries are tracked with pointers that only
+ * move inward. Both phases are therefore linear in the total length of the
+ * lists:</p>
+ * <ol>
+ *     <li><b>Proposals</b>: students propose down their lists; a student holding a
+ *         proposal drops everyone they like less than the proposer.</li>
+ *     <li><b>Rotations</b>: while some list has two or more entries, a rotation is
+ *         found by walking second and last entries and then eliminated. The walk is
+ *         kept on a stack across rotations, so no step is repeated.</li>
+ * </ol>
+ *
+ * <p>Some preferences admit no stable matching, which shows up as a list emptying
+ * during the second phase. The first such failure proves it, so
+ * {@link RoommateResult#isStable()} is exact. The fallback is a heuristic that keeps
+ * going from the reduced table rather than solving again:</p>
+ * <ul>
+ *     <li>Students whose lists emptied are excluded.</li>
+ *     <li>Students who lost their first choice to the failed rotation propose again,
+ *         which restores the table the second phase needs.</li>
+ *     <li>Rotations are then eliminated as before. An exclusion costs the
+ *         proposals it triggers and a fresh rotation walk, not another pass over
+ *         every list.</li>
+ * </ul>
+ * <p>The remaining students end up matched stably with respect to the reduced
+ * table, though entries dropped because of an excluded student may still leave
+ * blocking pairs among them. Excluded students are then paired, in exclusion order,
+ * with the first acceptable student who is still free; pairing two unpaired
+ * students never adds a blocking pair. The {@link RoommateResult} reports the
+ * exclusions and the blocking pairs left.</p>
+ *
+ * <p>Roommate fields are set reciprocally via
+ * {@link UniversityStudent#setRoommate(UniversityStudent)}, and cleared for every
+ * participating student left unpaired.</p>
+ */
+public class StableRoommates {
+
+    /**
+     * Matches roommates among a list of students, resolving preference names exactly
+     * against the students' names.
+     *
+     * @param students the students participating in the matching
+     * @return the matching result; a stable, empty result for {@code null}
+     */
+    public static RoommateResult assignRoommates(List<UniversityStudent> students) {
+        if (students == null) return new RoommateResult(true, new ArrayList<>(), 0, 0);
+
+        Map<String, UniversityStudent> byName = new HashMap<>();
+        for (UniversityStudent s : students) {
+            if (s != null) byName.put(s.name, s);
+        }
+        return assignRoommates(students, byName::get);
+    }
+
+    /**
+     * Matches roommates among every student in a graph, resolving preference names
+     * through the graph's name index. As with {@link GaleShapley}, a name that
+     * differs in case from the student's is treated as unknown.
+     *
+     * @param graph the graph whose students are matched
+     * @return the matching result; a stable, empty result for {@code null}
+     */
+    public static RoommateResult assignRoommates(StudentGraph graph) {
+        if (graph == null) return new RoommateResult(true, new ArrayList<>(), 0, 0);
+
+        return assignRoommates(new ArrayList<>(graph.getAllNodes()), name -> {
+            UniversityStudent s = graph.getStudent(name);
+            return (s != null && s.name.equals(name)) ? s : null;
+        });
+    }
+
+    /**
+     * Runs the matching, resolving preference names with {@code lookup}.
+     */
+    private static RoommateResult assignRoommates(List<UniversityStudent> students,
+                                                  Function<String, UniversityStudent> lookup) {
+        Map<UniversityStudent, Integer> ids = new IdentityHashMap<>();
+        List<UniversityStudent> people = new ArrayList<>();
+        for (UniversityStudent s : students) {
+            if (s != null && !ids.containsKey(s)) {
+                ids.put(s, people.size());
+                people.add(s);
+            }
+        }
+
+        Table table = Table.of(people, ids, lookup);
+        int n = people.size();
+
+        table.solve();
+        List<UniversityStudent> dropped = new ArrayList<>(table.excludedCount);
+        for (int k = 0; k < table.excludedCount; k++) {
+            dropped.add(people.get(table.excluded[k]));
+        }
+
+        // Slot of each student's roommate in their own list, or -1 when unpaired
+        int[] mateSlot = new int[n];
+        for (int p = 0; p < n; p++) {
+            mateSlot[p] = (table.size[p] == 1) ? table.head[p] : -1;
+        }
+
+        // Pair the excluded students where an acceptable roommate is still free
+        for (int k = 0; k < table.excludedCount; k++) {
+            int x = table.excluded[k];
+            for (int s = table.start[x]; s < table.start[x + 1] && mateSlot[x] < 0; s++) {
+                int y = table.target[s];
+                if (mateSlot[y] < 0) {
+                    mateSlot[x] = s;
+                    mateSlot[y] = table.mirror[s];
+                }
+            }
+        }
+
+        int pairs = 0;
+        for (int p = 0; p < n; p++) {
+            int s = mateSlot[p];
+            people.get(p).setRoommate((s < 0) ? null : people.get(table.target[s]));
+            if (s >= 0 && table.target[s] > p) pairs++;
+        }
+        return new RoommateResult(dropped.isEmpty(), dropped, pairs, table.blockingPairs(mateSlot));
+    }
+
+    /**
+     * The preference table: the acceptable entries of every list as slots, and the
+     * live state of the reduced lists while the algorithm runs.
+     */
+    private static final class Table {
+        /** Slots of student {@code p} are {@code [start[p], start[p + 1])}, in preference order. */
+        final int[] start;
+
+        /** Student named by each slot. */
+        final int[] target;
+
+        /** Slot in the named student's list that names the slot's owner. */
+        final int[] mirror;
+
+        /** Whether each slot has been removed from the reduced lists. */
+        final boolean[] removed;
+
+        /** First live slot of each list; past the end once the list is empty. */
+        final int[] head;
+
+        /** Last live slot of each list. */
+        final int[] tail;
+
+        /** Lower bound on the second live slot of each list. */
+        final int[] second;
+
+        /** Number of live slots in each list. */
+        final int[] size;
+
+        /** Students who still have to propose, and whether each one is queued. */
+        final int[] free;
+        final boolean[] queued;
+        int freeCount;
+
+        /** Walk of the rotation search, and each student's position on it or {@code -1}. */
+        final int[] path;
+        final int[] onPath;
+
+        /** Kept slot of each rotation member's second choice, parallel to {@link #path}. */
+        final int[] keep;
+
+        /** Students whose first choice was removed by the current rotation. */
+        final int[] moved;
+        final int[] movedMark;
+        int movedCount;
+        int rotation;
+
+        /** Students whose list emptied while rotating, in order. */
+        final int[] excluded;
+        int excludedCount;
+
+        /** Whether removals are in the rotation phase, where an emptied list means failure. */
+        boolean rotating;
+
+        private Table(int[] start, int[] target, int[] mirror) {
+            int n = start.length - 1;
+            this.start = start;
+            this.target = target;
+            this.mirror = mirror;
+            this.removed = new boolean[target.length];
+            this.head = new int[n];
+            this.tail = new int[n];
+            this.second = new int[n];
+            this.size = new int[n];
+            this.free = new int[n];
+            this.queued = new boolean[n];
+            this.path = new int[n];
+            this.onPath = new int[n];
+            this.keep = new int[n];
+            this.moved = new int[n];
+            this.movedMark = new int[n];
+            this.excluded = new int[n];
+        }
+
+        /**
+         * Resolves every preference list to student ids and keeps the mutually
+         * acceptable entries, each linked to its mirror entry.
+         */
+        static Table of(List<UniversityStudent> people, Map<UniversityStudent, Integer> ids,
+                        Function<String, UniversityStudent> lookup) {
+            int n = people.size();
+            int[] rawStart = new int[n + 1];
+            for (int p = 0; p < n; p++) {
+                List<String> prefs = people.get(p).roommatePreferences;
+                rawStart[p + 1] = rawStart[p] + ((prefs == null) ? 0 : prefs.size());
+            }
+
+            // Resolve names, dropping unknown students, the owner and repeats
+            int slots = rawStart[n];
+            int[] raw = new int[slots];
+            int[] owner = new int[slots];
+            int[] incoming = new int[n + 1];
+            int[] mark = new int[n];
+            int[] where = new int[n];
+            for (int p = 0; p < n; p++) {
+                List<String> prefs = people.get(p).roommatePreferences;
+                mark[p] = p + 1;
+                for (int j = rawStart[p]; j < rawStart[p + 1]; j++) {
+                    String name = prefs.get(j - rawStart[p]);
+                    UniversityStudent c = (name == null) ? null : lookup.apply(name);
+                    Integer id = (c == null) ? null : ids.get(c);
+                    owner[j] = p;
+                    if (id == null || mark[id] == p + 1) {
+                        raw[j] = -1;
+                    } else {
+                        mark[id] = p + 1;
+                        raw[j] = id;
+                        incoming[id + 1]++;
+                    }
+                }
+            }
+
+            // Find each entry's mirror by visiting the entries naming each student
+            for (int q = 0; q < n; q++) {
+                incoming[q + 1] += incoming[q];
+            }
+            int[] naming = new int[incoming[n]];
+            int[] fill = Arrays.copyOf(incoming, n);
+            for (int j = 0; j < slots; j++) {
+                if (raw[j] >= 0) naming[fill[raw[j]]++] = j;
+            }
+
+            Arrays.fill(mark, 0);
+            int[] rawMirror = new int[slots];
+            Arrays.fill(rawMirror, -1);
+            for (int q = 0; q < n; q++) {
+                for (int j = rawStart[q]; j < rawStart[q + 1]; j++) {
+                    if (raw[j] >= 0) {
+                        mark[raw[j]] = q + 1;
+                        where[raw[j]] = j;
+                    }
+                }
+                for (int i = incoming[q]; i < incoming[q + 1]; i++) {
+                    int j = naming[i];
+                    if (mark[owner[j]] == q + 1) rawMirror[j] = where[owner[j]];
+                }
+            }
+
+            // Compact the mutual entries
+            int[] start = new int[n + 1];
+            int[] moved = new int[slots];
+            int kept = 0;
+            for (int p = 0; p < n; p++) {
+                for (int j = rawStart[p]; j < rawStart[p + 1]; j++) {
+                    moved[j] = (rawMirror[j] >= 0) ? kept++ : -1;
+                }
+                start[p + 1] = kept;
+            }
+            int[] target = new int[kept];
+            int[] mirror = new int[kept];
+            for (int j = 0; j < slots; j++) {
+                if (moved[j] >= 0) {
+                    target[moved[j]] = raw[j];
+                    mirror[moved[j]] = moved[rawMirror[j]];
+                }
+            }
+            return new Table(start, target, mirror);
+        }
+
+        /**
+         * Runs both phases. If the rotation phase empties a list, there is no stable
+         * matching: the students with emptied lists are recorded in {@link #excluded},
+         * the students whose first choice the rotation removed propose again, and the
+         * rotation phase carries on from the repaired table.
+         */
+        void solve() {
+            int n = head.length;
+            for (int p = 0; p < n; p++) {
+                head[p] = start[p];
+                tail[p] = start[p + 1] - 1;
+                second[p] = start[p] + 1;
+                size[p] = start[p + 1] - start[p];
+                onPath[p] = -1;
+                free[p] = n - 1 - p;
+                queued[p] = true;
+            }
+            freeCount = n;
+
+            // Phase 1: free students propose to their first live choice
+            rotating = false;
+            propose();
+
+            // Phase 2: eliminate rotations until every list has at most one entry
+            rotating = true;
+            int top = 0;
+            int scan = 0;
+            while (true) {
+                if (top == 0) {
+                    while (scan < n && size[scan] < 2) scan++;
+                    if (scan == n) return;
+                    onPath[scan] = top;
+                    path[top++] = scan;
+                }
+
+                int p = path[top - 1];
+                int next = target[tail[target[secondOf(p)]]];
+                if (onPath[next] < 0) {
+                    onPath[next] = top;
+                    path[top++] = next;
+                    continue;
+                }
+
+                // The walk closed a cycle: path[from..top) is a rotation
+                int from = onPath[next];
+                for (int i = from; i < top; i++) {
+                    keep[i] = mirror[secondOf(path[i])];
+                }
+                rotation++;
+                movedCount = 0;
+                int failures = excludedCount;
+                for (int i = from; i < top; i++) {
+                    truncate(target[mirror[keep[i]]], keep[i]);
+                }
+
+                if (excludedCount > failures) {
+                    // No stable matching: restore proposals around the emptied lists
+                    for (int i = 0; i < top; i++) {
+                        onPath[path[i]] = -1;
+                    }
+                    top = 0;
+                    rotating = false;
+                    for (int k = 0; k < movedCount; k++) {
+                        enqueue(moved[k]);
+                    }
+                    propose();
+                    rotating = true;
+                    continue;
+                }
+
+                for (int i = from; i < top; i++) {
+                    onPath[path[i]] = -1;
+                }
+                top = from;
+                while (top > 0 && size[path[top - 1]] < 2) {
+                    onPath[path[--top]] = -1;
+                }
+            }
+        }
+
+        /**
+         * Lets every queued student propose to their first live choice, who drops
+         * everyone they like less. Students whose first choice drops them are queued
+         * again by {@link #drop}.
+         */
+        private void propose() {
+            while (freeCount > 0) {
+                int p = free[--freeCount];
+                queued[p] = false;
+                if (size[p] == 0) continue;
+
+                truncate(target[head[p]], mirror[head[p]]);
+            }
+        }
+
+        private void enqueue(int p) {
+            if (!queued[p] && size[p] > 0) {
+                queued[p] = true;
+                free[freeCount++] = p;
+            }
+        }
+
+        /**
+         * Returns the second live slot of a list with at least two live slots.
+         */
+        private int secondOf(int p) {
+            int s = Math.max(second[p], head[p] + 1);
+            while (removed[s]) s++;
+            second[p] = s;
+            return s;
+        }
+
+        /**
+         * Removes every live slot of {@code q}'s list after slot {@code last}, along
+         * with the mirror slots.
+         */
+        private void truncate(int q, int last) {
+            while (size[q] > 0 && tail[q] > last) {
+                remove(tail[q]);
+            }
+        }
+
+        /**
+         * Removes a slot and its mirror, so the two students drop each other.
+         */
+        private void remove(int s) {
+            int m = mirror[s];
+            removed[s] = true;
+            removed[m] = true;
+            drop(target[m], s);
+            drop(target[s], m);
+        }
+
+        /**
+         * Updates a list after its slot {@code s} was removed. Losing the first choice
+         * means losing the held proposal: outside the rotation phase the student
+         * proposes again, during it the move is recorded in case the rotation fails.
+         */
+        private void drop(int p, int s) {
+            boolean first = (s == head[p]);
+            size[p]--;
+            if (first) {
+                while (head[p] <= tail[p] && removed[head[p]]) head[p]++;
+            }
+            if (s == tail[p]) {
+                while (tail[p] >= head[p] && removed[tail[p]]) tail[p]--;
+            }
+
+            if (!rotating) {
+                if (first) enqueue(p);
+            } else if (size[p] == 0) {
+                excluded[excludedCount++] = p;
+            } else if (first && movedMark[p] != rotation) {
+                movedMark[p] = rotation;
+                moved[movedCount++] = p;
+            }
+        }
+
+        /**
+         * Counts the mutually acceptable pairs who both prefer each other to their
+         * roommates, with no roommate ranked below every listed one.
+         */
+        long blockingPairs(int[] mateSlot) {
+            long count = 0;
+            for (int p = 0; p < head.length; p++) {
+                int rp = (mateSlot[p] < 0) ? Integer.MAX_VALUE : mateSlot[p] - start[p];
+                for (int s = start[p]; s < start[p] + Math.min(rp, start[p + 1] - start[p]); s++) {
+                    int q = target[s];
+                    if (q < p) continue;
+                    int rq = (mateSlot[q] < 0) ? Integer.MAX_VALUE : mateSlot[q] - start[q];
+                    if (mirror[s] - start[q] < rq) count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -11,38 +11,76 @@ import java.util.*;
  * between students, which is implemented by subclasses such as
  * {@link UniversityStudent}. The connection strength is used for
  * graph construction, roommate matching, and referral path finding.
+ *
+ * <p>The attributes are fixed at construction and the lists cannot be modified,
+ * so subclasses may derive cached forms of them once, as
+ * {@link UniversityStudent} does for scoring.</p>
  */
 public abstract class Student {
 
     /** The name of the student. */
-    protected String name;
+    protected final String name;
 
     /** The age of the student. */
-    protected int age;
+    protected final int age;
 
     /** The gender of the student. */
-    protected String gender;
+    protected final String gender;
 
     /** The academic year of the student (e.g., 1 = freshman). */
-    protected int year;
+    protected final int year;
 
     /** The major field of study of the student. */
-    protected String major;
+    protected final String major;
 
     /** The grade point average of the student. */
-    protected double gpa;
+    protected final double gpa;
 
     /**
      * A list of preferred roommate names, in priority order.
      * Names must correspond to other students in the dataset.
      */
-    protected List<String> roommatePreferences;
+    protected final List<String> roommatePreferences;
 
     /**
      * A list of company names where the student previously completed internships.
      * Used by the referral path finder to locate connections to target companies.
      */
-    protected List<String> previousInternships;
+    protected final List<String> previousInternships;
+
+    /**
+     * Initializes the student's attributes. The lists are copied into unmodifiable
+     * lists; {@code null} lists become empty.
+     *
+     * @param name the student's name
+     * @param age the student's age
+     * @param gender the student's gender
+     * @param year the student's academic year
+     * @param major the student's major
+     * @param gpa the student's GPA
+     * @param roommatePreferences preferred roommate names, in priority order
+     * @param previousInternships internship companies the student has worked at
+     */
+    protected Student(String name, int age, String gender, int year, String major, double gpa,
+                      List<String> roommatePreferences, List<String> previousInternships) {
+        this.name = name;
+        this.age = age;
+        this.gender = gender;
+        this.year = year;
+        this.major = major;
+        this.gpa = gpa;
+        this.roommatePreferences = copyOf(roommatePreferences);
+        this.previousInternships = copyOf(previousInternships);
+    }
+
+    /**
+     * Returns an unmodifiable copy of a list, which may contain {@code null} entries.
+     */
+    private static List<String> copyOf(List<String> list) {
+        return (list == null)
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(list));
+    }
 
     /**
      * Calculates the connection strength between this student and another student.
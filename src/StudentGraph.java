@@ -1,6 +1,8 @@
 package src;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Represents an undirected, weighted graph where each node is a {@link UniversityStudent}.
@@ -13,11 +15,18 @@ import java.util.*;
  *
  * <p>The graph uses an adjacency list representation where each student maps
  * to a list of {@link Edge} objects. The constructor automatically builds
- * the complete graph by computing connection strengths between every pair
- * of students.</p>
+ * the graph by computing connection strengths between pairs of students,
+ * either every pair or only the pairs an {@link AttributeIndex} reports as
+ * sharing an attribute (see {@link BuildMode}).</p>
  *
  * <p>Edges are symmetric (undirected): if A connects to B with weight W,
  * then B connects to A with the same weight.</p>
+ *
+ * <p>Every student also receives a dense int id, in the order students are added.
+ * Ids are never reused, so a removed student leaves an empty slot. The graph can be
+ * edited in place with {@link #addStudent}, {@link #removeStudent} and
+ * {@link #updateStudent}, which rescore only the affected student's row; every
+ * change increments {@link #getVersion()}.</p>
  */
 public class StudentGraph {
 
@@ -53,11 +62,81 @@ public class StudentGraph {
         }
     }
 
+    /**
+     * Strategy used by the constructor to decide which pairs of students get scored.
+     */
+    public enum BuildMode {
+        /**
+         * Scores every pair of students and adds an edge for each one,
+         * including pairs whose connection strength is 0.
+         */
+        ALL_PAIRS,
+
+        /**
+         * Scores every pair of students but only materializes edges with a positive
+         * connection strength, as the FAQ requires for disconnected students.
+         * Adjacency lists then hold real connections only, so memory tracks the
+         * number of edges and traversals never scan weight-0 edges.
+         */
+        SPARSE,
+
+        /**
+         * Uses an {@link AttributeIndex} to enumerate only the pairs that share an
+         * internship, major, age or roommate preference, so the cost grows with the
+         * number of non-zero edges instead of n². Pairs sharing nothing are never
+         * scored and never get an edge, so the result equals {@link #SPARSE}.
+         */
+        INDEXED
+    }
+
     /** Adjacency list storing each student and its list of weighted edges. */
     private final Map<UniversityStudent, List<Edge>> adj;
 
+    /** Cached CSR snapshot of {@link #adj}, or {@code null} if the graph changed since. */
+    private CsrGraph csr;
+
+    /** How the graph was built; incremental updates follow the same rules. */
+    private final BuildMode mode;
+
+    /** Student for each id; removed students leave {@code null}. */
+    private final List<UniversityStudent> byId = new ArrayList<>();
+
+    /** Id for each student currently in the graph. */
+    private final Map<UniversityStudent, Integer> ids = new HashMap<>();
+
+    /**
+     * Sources of the manual {@link #addEdge} calls into each student. Scored edges
+     * always come in pairs, so removing a student finds those through its own list;
+     * manual edges may be one-way and are found here instead.
+     */
+    private final Map<UniversityStudent, Set<UniversityStudent>> manualSources = new HashMap<>();
+
+    /**
+     * Case-folded name → the students with that name, for lookups by name. Names
+     * that differ only in case share a key, at most one student per exact name.
+     */
+    private final Map<String, List<UniversityStudent>> byName = new HashMap<>();
+
+    /** Column-wise copy of every student's profile, by id, for one-vs-all scoring. */
+    private final ConnectionScorer scorer;
+
+    /** Attribute postings by id, used to find the pairs an edit can affect. */
+    private final AttributeIndex index;
+
+    /** Incremented on every change to nodes or edges. */
+    private long version;
+
+    /** Version of the last change that was not a pure removal. */
+    private long growthVersion;
+
+    /** Scratch buffers for rescoring a single row during incremental updates. */
+    private int[] rowSeen = new int[0];
+    private int[] rowCandidates = new int[0];
+    private int[] rowScores = new int[0];
+    private int rowStamp;
+
     /**
-     * Constructs an undirected graph using a list of students.
+     * Constructs an undirected graph using a list of students, scoring every pair.
      *
      * <p>The constructor performs the following steps:</p>
      * <ol>
@@ -66,37 +145,265 @@ public class StudentGraph {
      *     <li>Adds edges in both directions using the maximum of A→B and B→A strength</li>
      * </ol>
      *
-     * <p>Edges with weight 0 are still included to support referral path traversal.</p>
+     * <p>Edges with weight 0 are still included to support referral path traversal.
+     * Use {@link BuildMode#SPARSE} to leave zero-strength pairs unconnected.</p>
      *
      * @param students the list of students to include in the graph
      */
     public StudentGraph(List<UniversityStudent> students) {
+        this(students, BuildMode.ALL_PAIRS);
+    }
+
+    /**
+     * Constructs an undirected graph using a list of students and the given build mode.
+     *
+     * <p>For every pair that is scored, the edge weight is the maximum of the A→B and
+     * B→A strengths, exactly as in {@link #StudentGraph(List)}. Each student's
+     * adjacency list is ordered by the neighbors' positions in {@code students}
+     * regardless of the mode.</p>
+     *
+     * @param students the list of students to include in the graph
+     * @param mode how candidate pairs are enumerated
+     */
+    public StudentGraph(List<UniversityStudent> students, BuildMode mode) {
+        this(students, mode, 1);
+    }
+
+    /**
+     * Constructs an undirected graph using a list of students, the given build mode
+     * and a number of worker threads for edge scoring.
+     *
+     * <p>With {@code parallelism > 1}, rows of the pair matrix are split into blocks
+     * that a {@link ForkJoinPool} scores concurrently. Each worker writes a row's
+     * neighbors and weights into arrays owned by that row only, and the rows are then
+     * merged into the adjacency list in order, so no locking is needed and the
+     * resulting graph is identical to the single-threaded build.</p>
+     *
+     * @param students the list of students to include in the graph
+     * @param mode how candidate pairs are enumerated
+     * @param parallelism the number of scoring threads; values below 1 are treated as 1
+     */
+    public StudentGraph(List<UniversityStudent> students, BuildMode mode, int parallelism) {
         this.adj = new LinkedHashMap<>();
-        if (students == null) return;
+        this.mode = (mode == null) ? BuildMode.ALL_PAIRS : mode;
+
+        List<UniversityStudent> list = (students == null)
+                ? new ArrayList<>()
+                : new ArrayList<>(students);
 
-        // Initialize nodes
-        for (UniversityStudent s : students) {
+        // Initialize nodes; list positions become ids
+        for (int i = 0; i < list.size(); i++) {
+            UniversityStudent s = list.get(i);
             adj.put(s, new ArrayList<>());
+            byId.add(s);
+            ids.put(s, i);
+            indexName(s);
         }
 
-        // Build symmetric edges
-        List<UniversityStudent> list = new ArrayList<>(students);
+        this.scorer = new ConnectionScorer(list);
+        this.index = new AttributeIndex(list);
+
+        AttributeIndex candidates = (this.mode == BuildMode.INDEXED) ? index : null;
+        boolean skipZero = this.mode != BuildMode.ALL_PAIRS;
+
+        if (parallelism <= 1) {
+            buildSequential(list, candidates, skipZero);
+        } else {
+            buildParallel(list, candidates, skipZero, parallelism);
+        }
+
+        // Construction is not a modification; start counting from here
+        version = 0;
+        growthVersion = 0;
+    }
+
+    /**
+     * Scores the rows one after another, adding each row's edges as soon as it is scored.
+     *
+     * @param list the students, in node order
+     * @param index the attribute index to draw candidates from, or {@code null} to score all pairs
+     * @param skipZero whether pairs with a connection strength of 0 are left unconnected
+     */
+    private void buildSequential(List<UniversityStudent> list, AttributeIndex index, boolean skipZero) {
+        RowScorer rows = new RowScorer(scorer, index, skipZero);
+
+        for (int i = 0; i < list.size(); i++) {
+            int count = rows.scoreRow(i);
+            for (int k = 0; k < count; k++) {
+                addUndirected(list.get(i), list.get(rows.targets[k]), rows.weights[k]);
+            }
+        }
+    }
+
+    /**
+     * Scores blocks of rows on a dedicated {@link ForkJoinPool}, then merges the
+     * per-row results into the adjacency list in row order.
+     *
+     * @param list the students, in node order
+     * @param index the attribute index to draw candidates from, or {@code null} to score all pairs
+     * @param skipZero whether pairs with a connection strength of 0 are left unconnected
+     * @param parallelism the number of worker threads
+     */
+    private void buildParallel(List<UniversityStudent> list, AttributeIndex index,
+                               boolean skipZero, int parallelism) {
         int n = list.size();
+        int[][] rowTargets = new int[n][];
+        int[][] rowWeights = new int[n][];
+
+        // Upper-triangle rows shrink as i grows, so hand out many small blocks
+        // and let work stealing even out the load
+        int grain = Math.max(1, n / (parallelism * 16));
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new RowBlockTask(scorer, index, skipZero, 0, n, grain, rowTargets, rowWeights));
+        } finally {
+            pool.shutdown();
+        }
 
+        // Pre-size every adjacency list before merging
+        int[] degree = new int[n];
+        for (int i = 0; i < n; i++) {
+            degree[i] += rowTargets[i].length;
+            for (int j : rowTargets[i]) degree[j]++;
+        }
         for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                UniversityStudent a = list.get(i);
-                UniversityStudent b = list.get(j);
+            ((ArrayList<Edge>) adj.get(list.get(i))).ensureCapacity(degree[i]);
+        }
+
+        for (int i = 0; i < n; i++) {
+            int[] targets = rowTargets[i];
+            int[] weights = rowWeights[i];
+            for (int k = 0; k < targets.length; k++) {
+                addUndirected(list.get(i), list.get(targets[k]), weights[k]);
+            }
+        }
+    }
+
+    /**
+     * Adds an edge of the given weight in both directions.
+     *
+     * @param a the first student
+     * @param b the second student
+     * @param weight the connection strength
+     */
+    private void addUndirected(UniversityStudent a, UniversityStudent b, int weight) {
+        link(a, b, weight);
+        link(b, a, weight);
+    }
+
+    /**
+     * Scores the upper-triangle part of one row of the pair matrix: the pairs
+     * {@code (i, j)} with {@code j > i}, using the batch {@link ConnectionScorer}.
+     * Each instance owns its scratch buffers, so one row scorer must not be shared
+     * between threads; the underlying {@code ConnectionScorer} can be.
+     */
+    private static class RowScorer {
+        private final ConnectionScorer scorer;
+        private final AttributeIndex index;
+        private final boolean skipZero;
+
+        /** Neighbor positions of the last scored row. */
+        final int[] targets;
+
+        /** Weights matching {@link #targets}. */
+        final int[] weights;
+
+        private final int[] scores;
+        private final int[] candidates;
+        private final int[] seen;
+
+        RowScorer(ConnectionScorer scorer, AttributeIndex index, boolean skipZero) {
+            int n = scorer.size();
+            this.scorer = scorer;
+            this.index = index;
+            this.skipZero = skipZero;
+            this.targets = new int[n];
+            this.weights = new int[n];
+            this.scores = new int[n];
+            this.candidates = (index == null) ? null : new int[n];
+            this.seen = (index == null) ? null : new int[n];
+        }
+
+        /**
+         * Scores row {@code i}, keeping the stronger of the two directional scores.
+         *
+         * @param i the row position
+         * @return the number of entries written to {@link #targets} and {@link #weights}
+         */
+        int scoreRow(int i) {
+            UniversityStudent a = scorer.getStudent(i);
+            int count = 0;
+
+            if (index != null) {
+                // Stamp with i + 1 so the zero-filled array needs no initialization
+                int candidateCount = index.collectCandidates(a, i, i, seen, i + 1, candidates);
+                scorer.scoreSymmetric(a, candidates, candidateCount, scores);
+                for (int k = 0; k < candidateCount; k++) {
+                    count = keep(candidates[k], scores[k], count);
+                }
+            } else {
+                int n = scorer.size();
+                scorer.scoreSymmetric(a, i + 1, n, scores);
+                for (int j = i + 1; j < n; j++) {
+                    count = keep(j, scores[j - i - 1], count);
+                }
+            }
+            return count;
+        }
 
-                int w1 = a.calculateConnectionStrength(b);
-                int w2 = b.calculateConnectionStrength(a);
+        private int keep(int j, int weight, int count) {
+            if (weight == 0 && skipZero) return count;
 
-                // Use the stronger of the two directional scores
-                int weight = Math.max(w1, w2);
+            targets[count] = j;
+            weights[count] = weight;
+            return count + 1;
+        }
+    }
+
+    /**
+     * Fork/join task that scores a contiguous block of rows and stores each
+     * row's result in its own slot of the shared output arrays.
+     */
+    private static class RowBlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ConnectionScorer scorer;
+        private final AttributeIndex index;
+        private final boolean skipZero;
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final int[][] rowTargets;
+        private final int[][] rowWeights;
+
+        RowBlockTask(ConnectionScorer scorer, AttributeIndex index, boolean skipZero,
+                     int from, int to, int grain, int[][] rowTargets, int[][] rowWeights) {
+            this.scorer = scorer;
+            this.index = index;
+            this.skipZero = skipZero;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.rowTargets = rowTargets;
+            this.rowWeights = rowWeights;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > grain) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RowBlockTask(scorer, index, skipZero, from, mid, grain, rowTargets, rowWeights),
+                          new RowBlockTask(scorer, index, skipZero, mid, to, grain, rowTargets, rowWeights));
+                return;
+            }
 
-                // Add undirected edges
-                addEdge(a, b, weight);
-                addEdge(b, a, weight);
+            // Per-task buffers; each row's output is copied into its own slot
+            RowScorer rows = new RowScorer(scorer, index, skipZero);
+            for (int i = from; i < to; i++) {
+                int count = rows.scoreRow(i);
+                rowTargets[i] = Arrays.copyOf(rows.targets, count);
+                rowWeights[i] = Arrays.copyOf(rows.weights, count);
             }
         }
     }
@@ -105,12 +412,214 @@ public class StudentGraph {
      * Adds a directional edge from student {@code a} to student {@code b}
      * with a specified weight. Does not enforce symmetry by itself.
      *
+     * <p>Weights must be non-negative. Searches store weights as unsigned bytes in
+     * the {@link CsrGraph} snapshot and charge {@code 10 - weight} clamped at 0, so a
+     * negative weight could not keep its cost there. Weights above
+     * {@link CsrGraph#MAX_WEIGHT} are accepted and stored as {@code MAX_WEIGHT},
+     * which leaves their cost at 0.</p>
+     *
+     * <p>The edge is removed along with either endpoint, even when no edge runs
+     * the other way.</p>
+     *
      * @param a the source student
      * @param b the target student
      * @param weight the weight for the edge
+     * @throws IllegalArgumentException if {@code weight} is negative
      */
     public void addEdge(UniversityStudent a, UniversityStudent b, int weight) {
-        adj.computeIfAbsent(a, k -> new ArrayList<>()).add(new Edge(b, weight));
+        if (weight < 0) {
+            throw new IllegalArgumentException("Edge weight must be non-negative: " + weight);
+        }
+        if (!adj.containsKey(a)) {
+            // A node introduced by a manual edge still gets an id, but no scored edges
+            attach(a, byId.size());
+        }
+        manualSources.computeIfAbsent(b, k -> new HashSet<>()).add(a);
+        link(a, b, weight);
+    }
+
+    /**
+     * Appends an edge to the list of a student already in the graph.
+     */
+    private void link(UniversityStudent a, UniversityStudent b, int weight) {
+        adj.get(a).add(new Edge(b, weight));
+        changed();
+    }
+
+    /**
+     * Adds a student to the graph and connects it to the existing students,
+     * following the graph's {@link BuildMode}.
+     *
+     * <p>Only the new student's row is scored: with {@code SPARSE} or {@code INDEXED}
+     * the candidates come from the attribute index, with {@code ALL_PAIRS} the row is
+     * scored against everyone in one batch. Each new edge is added in both directions
+     * and appended to the end of the neighbors' adjacency lists.</p>
+     *
+     * @param s the student to add
+     * @return {@code true} if the student was added, {@code false} if a student
+     *         with the same name is already in the graph
+     */
+    public boolean addStudent(UniversityStudent s) {
+        if (s == null || adj.containsKey(s)) return false;
+
+        int id = byId.size();
+        attach(s, id);
+        connect(s, id);
+        changed();
+        return true;
+    }
+
+    /**
+     * Removes a student and every edge touching it, in either direction. The
+     * student's id is retired.
+     *
+     * @param s the student to remove
+     * @return {@code true} if the student was in the graph
+     */
+    public boolean removeStudent(UniversityStudent s) {
+        Integer id = (s == null) ? null : ids.get(s);
+        if (id == null) return false;
+
+        detach(byId.get(id), id);
+        removed();
+        return true;
+    }
+
+    /**
+     * Replaces a student with an updated profile and rescores only that student's row.
+     * The student is matched by name, keeps its id, and moves to the end of the node
+     * iteration order.
+     * Manual {@link #addEdge} edges touching the student are dropped with its old row.
+     *
+     * @param updated the new profile of a student already in the graph
+     * @return {@code true} if a student with that name was found and updated
+     */
+    public boolean updateStudent(UniversityStudent updated) {
+        Integer id = (updated == null) ? null : ids.get(updated);
+        if (id == null) return false;
+
+        detach(byId.get(id), id);
+        attach(updated, id);
+        connect(updated, id);
+        changed();
+        return true;
+    }
+
+    /**
+     * Registers a student under an id without adding any edges.
+     */
+    private void attach(UniversityStudent s, int id) {
+        if (id == byId.size()) {
+            byId.add(s);
+        } else {
+            byId.set(id, s);
+        }
+        ids.put(s, id);
+        indexName(s);
+        adj.put(s, new ArrayList<>());
+        scorer.set(id, s);
+        index.add(id, s);
+    }
+
+    /**
+     * Removes a student's edges in both directions, including one-way manual edges
+     * into it, and unregisters it.
+     */
+    private void detach(UniversityStudent s, int id) {
+        for (Edge e : adj.remove(s)) {
+            unlink(e.neighbor, s);
+            Set<UniversityStudent> sources = manualSources.get(e.neighbor);
+            if (sources != null && sources.remove(s) && sources.isEmpty()) {
+                manualSources.remove(e.neighbor);
+            }
+        }
+        Set<UniversityStudent> sources = manualSources.remove(s);
+        if (sources != null) {
+            for (UniversityStudent a : sources) unlink(a, s);
+        }
+        ids.remove(s);
+        unindexName(s);
+        byId.set(id, null);
+        scorer.clear(id);
+        index.remove(id, s);
+    }
+
+    /**
+     * Adds a student to the name index, replacing a student with the same exact name.
+     */
+    private void indexName(UniversityStudent s) {
+        if (s.name == null) return;
+        List<UniversityStudent> named =
+                byName.computeIfAbsent(AttributeDictionary.fold(s.name), k -> new ArrayList<>(1));
+        named.removeIf(x -> x.name.equals(s.name));
+        named.add(s);
+    }
+
+    /**
+     * Removes a student from the name index. Other students whose names differ only
+     * in case stay indexed under the shared key.
+     */
+    private void unindexName(UniversityStudent s) {
+        if (s.name == null) return;
+        String key = AttributeDictionary.fold(s.name);
+        List<UniversityStudent> named = byName.get(key);
+        if (named == null) return;
+
+        named.removeIf(x -> x == s);
+        if (named.isEmpty()) byName.remove(key);
+    }
+
+    /**
+     * Removes every edge from {@code a} to {@code b}, if {@code a} is in the graph.
+     */
+    private void unlink(UniversityStudent a, UniversityStudent b) {
+        List<Edge> edges = adj.get(a);
+        if (edges != null) edges.removeIf(x -> x.neighbor.equals(b));
+    }
+
+    /**
+     * Scores a single student against the rest of the graph and adds its edges.
+     */
+    private void connect(UniversityStudent s, int id) {
+        int n = byId.size();
+        if (rowScores.length < n) {
+            int capacity = Math.max(n, rowScores.length * 2);
+            rowSeen = new int[capacity];
+            rowCandidates = new int[capacity];
+            rowScores = new int[capacity];
+            rowStamp = 0;
+        }
+
+        if (mode == BuildMode.ALL_PAIRS) {
+            scorer.scoreSymmetric(s, 0, n, rowScores);
+            for (int j = 0; j < n; j++) {
+                UniversityStudent other = byId.get(j);
+                if (j != id && other != null) addUndirected(s, other, rowScores[j]);
+            }
+        } else {
+            int count = index.collectCandidates(s, id, -1, rowSeen, ++rowStamp, rowCandidates);
+            scorer.scoreSymmetric(s, rowCandidates, count, rowScores);
+            for (int k = 0; k < count; k++) {
+                if (rowScores[k] > 0) addUndirected(s, byId.get(rowCandidates[k]), rowScores[k]);
+            }
+        }
+    }
+
+    /**
+     * Records a modification that may add or strengthen connections: bumps the
+     * version and drops the cached CSR snapshot.
+     */
+    private void changed() {
+        removed();
+        growthVersion = version;
+    }
+
+    /**
+     * Records a modification that only removes students and their edges.
+     */
+    private void removed() {
+        version++;
+        csr = null;
     }
 
     /**
@@ -133,6 +642,144 @@ public class StudentGraph {
         return adj.keySet();
     }
 
+    /**
+     * Returns the id of a student.
+     *
+     * @param s the student to look up
+     * @return the student's id, or {@code -1} if the student is not in the graph
+     */
+    public int getId(UniversityStudent s) {
+        Integer id = (s == null) ? null : ids.get(s);
+        return (id == null) ? -1 : id;
+    }
+
+    /**
+     * Looks up a student by name, ignoring case. The index is maintained as students
+     * are added, removed and updated, so lookups never scan the graph.
+     *
+     * <p>When several students' names differ only in case, the one whose name
+     * matches {@code name} exactly is returned. If none does, the one added to the
+     * index first among those still in the graph is returned.</p>
+     *
+     * @param name the student's name
+     * @return the student with that name, or {@code null} if there is none
+     */
+    public UniversityStudent getStudent(String name) {
+        if (name == null) return null;
+        List<UniversityStudent> named = byName.get(AttributeDictionary.fold(name));
+        if (named == null) return null;
+
+        for (UniversityStudent s : named) {
+            if (s.name.equals(name)) return s;
+        }
+        return named.get(0);
+    }
+
+    /**
+     * Looks up a student's id by name, ignoring case.
+     *
+     * @param name the student's name
+     * @return the student's id, or {@code -1} if there is no student with that name
+     */
+    public int getStudentId(String name) {
+        return getId(getStudent(name));
+    }
+
+    /**
+     * Returns the ids of the students who interned at a company, ignoring case.
+     * The lookup goes through the maintained company index, so it costs
+     * O(matches) and a company nobody interned at is answered without touching
+     * the graph. "None" placeholders are not indexed and never match.
+     *
+     * @param company the company name
+     * @return the matching ids in ascending order; empty if there are none
+     */
+    public int[] getInternIds(String company) {
+        return getInternIds(AttributeDictionary.COMPANIES.lookup(company));
+    }
+
+    /**
+     * Returns the ids of the students who interned at a company.
+     *
+     * @param companyId the company's id in {@link AttributeDictionary#COMPANIES}
+     * @return the matching ids in ascending order; empty if there are none
+     */
+    public int[] getInternIds(int companyId) {
+        return (companyId == AttributeDictionary.NULL_ID) ? new int[0] : index.internsOf(companyId);
+    }
+
+    /**
+     * Copies the ids of the students who interned at a company into a caller-owned
+     * buffer, without allocating.
+     *
+     * @param companyId the company's id in {@link AttributeDictionary#COMPANIES}
+     * @param out buffer of at least {@link #idCapacity()} entries
+     * @return the number of ids written, in ascending order
+     */
+    public int getInternIds(int companyId, int[] out) {
+        return (companyId == AttributeDictionary.NULL_ID) ? 0 : index.internsOf(companyId, out);
+    }
+
+    /**
+     * Returns the student with a given id.
+     *
+     * @param id the student id
+     * @return the student, or {@code null} if the id is unused or was retired
+     */
+    public UniversityStudent getStudentById(int id) {
+        return (id >= 0 && id < byId.size()) ? byId.get(id) : null;
+    }
+
+    /**
+     * Returns one past the largest id handed out so far. Every id of a student in the
+     * graph is below this value; some ids below it may belong to removed students.
+     *
+     * @return the id capacity
+     */
+    public int idCapacity() {
+        return byId.size();
+    }
+
+    /**
+     * Returns a counter that increases every time a node or edge is added,
+     * removed or changed. Derived data such as caches can record the version they
+     * were computed at and compare it to detect staleness.
+     *
+     * @return the current version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the version of the last change that was not a pure removal: an added
+     * edge, an added student, or an updated profile. Changes after it only removed
+     * students, which can make paths longer but never shorter, so a cheapest path
+     * computed at or after this version is still a cheapest path if none of its
+     * students has been removed since.
+     *
+     * @return the version of the last non-removal change, at most {@link #getVersion()}
+     */
+    public long getGrowthVersion() {
+        return growthVersion;
+    }
+
+    /**
+     * Returns a frozen compressed sparse row view of this graph, in which every
+     * student has a dense int id and traversal works on flat arrays.
+     *
+     * <p>CSR ids are the graph ids of {@link #getId}. The snapshot is cached and
+     * reused until the graph is modified.</p>
+     *
+     * @return the CSR snapshot of the current graph
+     */
+    public synchronized CsrGraph toCsr() {
+        if (csr == null) {
+            csr = CsrGraph.of(this);
+        }
+        return csr;
+    }
+
     /**
      * Prints the adjacency list of the graph to the console.
      * Useful for debugging and verifying graph construction.
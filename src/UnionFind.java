@@ -0,0 +1,91 @@
+package src;
+
+/**
+ * Disjoint sets over the ints {@code [0, n)}, with union by size and path halving,
+ * so any sequence of operations runs in near-constant amortized time each.
+ *
+ * <p>Not thread-safe.</p>
+ */
+public final class UnionFind {
+
+    /** Parent of each element; roots point to themselves. */
+    private final int[] parent;
+
+    /** Number of elements under each root. */
+    private final int[] size;
+
+    /** Number of disjoint sets. */
+    private int sets;
+
+    /**
+     * Creates {@code n} singleton sets.
+     *
+     * @param n the number of elements
+     */
+    public UnionFind(int n) {
+        parent = new int[n];
+        size = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        sets = n;
+    }
+
+    /**
+     * Returns the representative of the set holding {@code x}.
+     *
+     * @param x the element
+     * @return the root of its set
+     */
+    public int find(int x) {
+        while (parent[x] != x) {
+            // Path halving: point every other node on the path at its grandparent
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * Merges the sets holding {@code a} and {@code b}.
+     *
+     * @param a one element
+     * @param b another element
+     * @return {@code true} if they were in different sets
+     */
+    public boolean union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) return false;
+
+        if (size[ra] < size[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        parent[rb] = ra;
+        size[ra] += size[rb];
+        sets--;
+        return true;
+    }
+
+    /**
+     * Returns the size of the set holding {@code x}.
+     *
+     * @param x the element
+     * @return the number of elements in its set
+     */
+    public int sizeOf(int x) {
+        return size[find(x)];
+    }
+
+    /**
+     * Returns the number of disjoint sets, counting singletons.
+     *
+     * @return the set count
+     */
+    public int getSetCount() {
+        return sets;
+    }
+}
@@ -15,6 +15,34 @@ import java.util.concurrent.CopyOnWriteArrayList;
  */
 public class UniversityStudent extends Student {
 
+    /**
+     * How the shared-internship term of {@link #calculateConnectionStrength(Student)}
+     * is computed. All strategies produce the same score.
+     */
+    public enum InternshipOverlap {
+        /** Merge the two sorted company id arrays. */
+        SORTED_MERGE,
+
+        /**
+         * Intersect the two {@link CompanyBitset}s and count the common bits.
+         * Falls back to the merge when a student lists the same company twice,
+         * since a bitset cannot represent the repeat.
+         */
+        BITSET,
+
+        /**
+         * Use the bitset when both students have at least {@link #BITSET_THRESHOLD}
+         * internships, and the merge otherwise.
+         */
+        AUTO
+    }
+
+    /** Internship count from which {@link InternshipOverlap#AUTO} switches to bitsets. */
+    public static final int BITSET_THRESHOLD = 8;
+
+    /** Strategy used for the shared-internship term, for every student. */
+    private static volatile InternshipOverlap internshipOverlap = InternshipOverlap.AUTO;
+
     /** The assigned roommate of this student, or {@code null} if none. */
     private UniversityStudent roommate;
 
@@ -24,6 +52,33 @@ public class UniversityStudent extends Student {
     /** A thread-safe list maintaining chat messages received or sent by the student. */
     private List<String> chatHistory;
 
+    /** Id of {@link #name} in {@link WeakAttributeDictionary#NAMES}. */
+    final int nameId;
+
+    /** Id of the case-folded major, or {@link AttributeDictionary#NULL_ID} if the major is empty. */
+    final int majorId;
+
+    /**
+     * Ids of the case-folded internship companies, sorted ascending.
+     * "None" and {@code null} entries are excluded; repeated companies are kept.
+     */
+    final int[] internshipIds;
+
+    /**
+     * Bitset form of {@link #internshipIds}, or {@code null} if the student
+     * lists some company more than once.
+     */
+    final CompanyBitset internshipBits;
+
+    /** Distinct ids of the preferred roommate names, sorted ascending. */
+    final int[] preferenceIds;
+
+    /**
+     * Handles of the name, major and preferred names, which keep {@link #nameId},
+     * {@link #majorId} and {@link #preferenceIds} assigned while this student is alive.
+     */
+    private final WeakAttributeDictionary.Handle[] profileHandles;
+
     /**
      * Constructs a fully defined {@code UniversityStudent} with academic information,
      * roommate preferences, and internship history.
@@ -42,25 +97,23 @@ public class UniversityStudent extends Student {
                              List<String> roommatePreferences,
                              List<String> previousInternships) {
 
-        this.name = name;
-        this.age = age;
-        this.gender = gender;
-        this.year = year;
-        this.major = major;
-        this.gpa = gpa;
-
-        // Defensive copies to protect internal structure
-        this.roommatePreferences = (roommatePreferences == null)
-                ? new ArrayList<>()
-                : new ArrayList<>(roommatePreferences);
-
-        this.previousInternships = (previousInternships == null)
-                ? new ArrayList<>()
-                : new ArrayList<>(previousInternships);
+        // Attributes are fixed from here on, so the encoded profile below stays current
+        super(name, age, gender, year, major, gpa, roommatePreferences, previousInternships);
 
         this.friends = Collections.synchronizedSet(new HashSet<>());
         this.chatHistory = new CopyOnWriteArrayList<>();
         this.roommate = null;
+
+        // Dictionary-encoded profile used by calculateConnectionStrength
+        List<WeakAttributeDictionary.Handle> handles = new ArrayList<>();
+        this.nameId = hold(WeakAttributeDictionary.NAMES, name, handles);
+        this.majorId = (major == null || major.isEmpty())
+                ? AttributeDictionary.NULL_ID
+                : hold(WeakAttributeDictionary.MAJORS, major, handles);
+        this.internshipIds = encodeInternships(this.previousInternships);
+        this.internshipBits = hasRepeats(internshipIds) ? null : CompanyBitset.of(internshipIds);
+        this.preferenceIds = encodePreferences(this.roommatePreferences, handles);
+        this.profileHandles = handles.toArray(new WeakAttributeDictionary.Handle[0]);
     }
 
     /**
@@ -83,6 +136,11 @@ public class UniversityStudent extends Student {
      *     <li>Same age (+1)</li>
      * </ul>
      *
+     * <p>The comparison uses the dictionary-encoded profile built in the constructor
+     * (see {@link AttributeDictionary}): preferences are a binary search over name ids,
+     * internships a merge of two sorted id arrays, and the major a single int
+     * comparison, so no strings are compared and nothing is allocated.</p>
+     *
      * @param other the student being compared to this one
      * @return a positive integer representing connection strength,
      *         or 0 if the other student is not a {@code UniversityStudent}
@@ -95,27 +153,15 @@ public class UniversityStudent extends Student {
         int score = 0;
 
         // Roommate preference match
-        if (this.roommatePreferences != null && this.roommatePreferences.contains(o.name)) {
+        if (Arrays.binarySearch(this.preferenceIds, o.nameId) >= 0) {
             score += 4;
         }
 
         // Shared internships
-        if (this.previousInternships != null && o.previousInternships != null) {
-            for (String c : this.previousInternships) {
-                if (c == null || c.equalsIgnoreCase("None")) continue;
-                for (String oc : o.previousInternships) {
-                    if (oc == null || oc.equalsIgnoreCase("None")) continue;
-                    if (c.equalsIgnoreCase(oc)) {
-                        score += 3;
-                    }
-                }
-            }
-        }
+        score += 3 * sharedInternships(o);
 
         // Same major
-        if (this.major != null && o.major != null
-                && !this.major.isEmpty()
-                && this.major.equalsIgnoreCase(o.major)) {
+        if (this.majorId != AttributeDictionary.NULL_ID && this.majorId == o.majorId) {
             score += 2;
         }
 
@@ -127,6 +173,155 @@ public class UniversityStudent extends Student {
         return score;
     }
 
+    /**
+     * Counts the internships shared with another student using the configured
+     * {@link InternshipOverlap} strategy.
+     *
+     * @param o the other student
+     * @return the number of matching (internship, internship) pairs
+     */
+    int sharedInternships(UniversityStudent o) {
+        return sharedInternships(this.internshipIds, this.internshipBits,
+                                 o.internshipIds, o.internshipBits);
+    }
+
+    /**
+     * Counts the internships shared by two encoded profiles using the configured
+     * {@link InternshipOverlap} strategy.
+     *
+     * @param ia sorted internship ids of one student
+     * @param ba bitset of one student, or {@code null} if it lists a company twice
+     * @param ib sorted internship ids of the other student
+     * @param bb bitset of the other student, or {@code null} if it lists a company twice
+     * @return the number of matching (internship, internship) pairs
+     */
+    static int sharedInternships(int[] ia, CompanyBitset ba, int[] ib, CompanyBitset bb) {
+        if (ba != null && bb != null) {
+            InternshipOverlap mode = internshipOverlap;
+            if (mode == InternshipOverlap.BITSET
+                    || (mode == InternshipOverlap.AUTO
+                        && ia.length >= BITSET_THRESHOLD
+                        && ib.length >= BITSET_THRESHOLD)) {
+                return ba.intersectionCount(bb);
+            }
+        }
+        return sharedInternships(ia, ib);
+    }
+
+    /**
+     * Counts the matching (internship, internship) pairs between two sorted id arrays,
+     * the way the nested comparison loop would: a company listed twice by one student
+     * and three times by the other counts six times.
+     *
+     * @param a sorted internship ids of one student
+     * @param b sorted internship ids of the other student
+     * @return the number of matching pairs
+     */
+    static int sharedInternships(int[] a, int[] b) {
+        int i = 0, j = 0, count = 0;
+
+        while (i < a.length && j < b.length) {
+            int x = a[i], y = b[j];
+            if (x < y) {
+                i++;
+            } else if (x > y) {
+                j++;
+            } else {
+                int runA = 0, runB = 0;
+                while (i < a.length && a[i] == x) { i++; runA++; }
+                while (j < b.length && b[j] == x) { j++; runB++; }
+                count += runA * runB;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Encodes an internship list as sorted company ids, skipping "None" and {@code null}.
+     *
+     * @param internships the internship companies
+     * @return the sorted company ids
+     */
+    private static int[] encodeInternships(List<String> internships) {
+        int[] ids = new int[internships.size()];
+        int count = 0;
+
+        for (String c : internships) {
+            if (c == null || c.equalsIgnoreCase("None")) continue;
+            ids[count++] = AttributeDictionary.COMPANIES.intern(c);
+        }
+
+        ids = Arrays.copyOf(ids, count);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Returns whether a sorted id array contains the same id more than once.
+     *
+     * @param sorted ids in ascending order
+     * @return {@code true} if some id is repeated
+     */
+    private static boolean hasRepeats(int[] sorted) {
+        for (int k = 1; k < sorted.length; k++) {
+            if (sorted[k] == sorted[k - 1]) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Encodes a roommate preference list as a sorted set of name ids.
+     * A {@code null} preference is kept as {@link AttributeDictionary#NULL_ID}
+     * so it still matches a student without a name, as {@code List.contains} would.
+     *
+     * @param preferences the preferred roommate names
+     * @param handles receives the handle of every interned name
+     * @return the sorted, distinct name ids
+     */
+    private static int[] encodePreferences(List<String> preferences,
+                                           List<WeakAttributeDictionary.Handle> handles) {
+        int[] ids = new int[preferences.size()];
+        for (int k = 0; k < ids.length; k++) {
+            ids[k] = hold(WeakAttributeDictionary.NAMES, preferences.get(k), handles);
+        }
+        return Arrays.stream(ids).sorted().distinct().toArray();
+    }
+
+    /**
+     * Interns a value and keeps its handle.
+     *
+     * @param dictionary the dictionary to intern into
+     * @param value the value, possibly {@code null}
+     * @param handles receives the value's handle
+     * @return the value's id, or {@link AttributeDictionary#NULL_ID} for {@code null}
+     */
+    private static int hold(WeakAttributeDictionary dictionary, String value,
+                            List<WeakAttributeDictionary.Handle> handles) {
+        WeakAttributeDictionary.Handle handle = dictionary.acquire(value);
+        if (handle == null) return AttributeDictionary.NULL_ID;
+        handles.add(handle);
+        return handle.getId();
+    }
+
+    /**
+     * Selects how the shared-internship term is computed for all students.
+     * Graph construction and every other scoring path pick this up automatically.
+     *
+     * @param mode the overlap strategy to use
+     */
+    public static void setInternshipOverlap(InternshipOverlap mode) {
+        internshipOverlap = (mode == null) ? InternshipOverlap.AUTO : mode;
+    }
+
+    /**
+     * Returns the strategy currently used for the shared-internship term.
+     *
+     * @return the overlap strategy
+     */
+    public static InternshipOverlap getInternshipOverlap() {
+        return internshipOverlap;
+    }
+
     /**
      * Returns the student’s currently assigned roommate.
      *
@@ -187,7 +382,7 @@ public class UniversityStudent extends Student {
     /**
      * Returns the student's previous internship companies.
      *
-     * @return a list of internship names
+     * @return an unmodifiable list of internship names
      */
     public List<String> getPreviousInternships() {
         return previousInternships;
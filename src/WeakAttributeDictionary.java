@@ -0,0 +1,141 @@
+package src;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns small integer ids to attribute strings like {@link AttributeDictionary},
+ * but forgets a value once no student uses it any more.
+ *
+ * <p>Student names and majors change with every roster, so a process that keeps
+ * loading rosters would grow a global dictionary of them without bound. Here each
+ * value's id is tied to a {@link Handle}: {@link UniversityStudent} keeps the handles
+ * of its name, major and preferred names, and once every holder is garbage
+ * collected the entry is dropped on a later {@link #acquire}. Students that are
+ * alive at the same time always share ids for equal values, so profiles from
+ * different rosters still compare correctly.</p>
+ *
+ * <p>Two shared dictionaries are used by {@link UniversityStudent}:</p>
+ * <ul>
+ *     <li>{@link #MAJORS} for majors (case-insensitive)</li>
+ *     <li>{@link #NAMES} for student names and roommate preferences (exact match)</li>
+ * </ul>
+ *
+ * <p>Case-insensitive dictionaries fold keys with {@link AttributeDictionary#fold(String)}.
+ * Ids are never reused, so a value that is dropped and acquired again gets a new
+ * id. Acquiring is thread-safe.</p>
+ */
+public final class WeakAttributeDictionary {
+
+    /** Majors, compared case-insensitively. */
+    public static final WeakAttributeDictionary MAJORS = new WeakAttributeDictionary(true);
+
+    /** Student names, compared exactly as roommate preferences are. */
+    public static final WeakAttributeDictionary NAMES = new WeakAttributeDictionary(false);
+
+    /** Whether keys are case-folded before lookup. */
+    private final boolean caseInsensitive;
+
+    /** Key → entry; an entry whose handle was collected is stale until expunged. */
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /** Entries whose handle has been collected. */
+    private final ReferenceQueue<Handle> released = new ReferenceQueue<>();
+
+    /** Next id to hand out. */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Creates an empty dictionary.
+     *
+     * @param caseInsensitive whether keys are compared ignoring case
+     */
+    private WeakAttributeDictionary(boolean caseInsensitive) {
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    /**
+     * Returns the handle of a value, assigning a new id if no live handle has it.
+     * The id stays assigned to the value for as long as the handle is reachable.
+     *
+     * @param value the value to intern
+     * @return the value's handle, or {@code null} for {@code null}
+     */
+    public Handle acquire(String value) {
+        if (value == null) return null;
+        expunge();
+
+        String key = caseInsensitive ? AttributeDictionary.fold(value) : value;
+        Entry entry = entries.get(key);
+        Handle handle = (entry == null) ? null : entry.get();
+        if (handle != null) return handle;
+
+        Handle[] out = new Handle[1];
+        entries.compute(key, (k, e) -> {
+            Handle h = (e == null) ? null : e.get();
+            if (h == null) {
+                h = new Handle(next.getAndIncrement());
+                e = new Entry(h, k, released);
+            }
+            out[0] = h;
+            return e;
+        });
+        return out[0];
+    }
+
+    /**
+     * Returns the number of values currently held by some handle.
+     *
+     * @return the number of live entries
+     */
+    public int size() {
+        expunge();
+        return entries.size();
+    }
+
+    /**
+     * Drops the entries whose handle has been collected.
+     */
+    private void expunge() {
+        for (Reference<? extends Handle> r; (r = released.poll()) != null; ) {
+            Entry e = (Entry) r;
+            entries.remove(e.key, e);
+        }
+    }
+
+    /**
+     * Keeps a value's id assigned while it is reachable.
+     */
+    public static final class Handle {
+        private final int id;
+
+        private Handle(int id) {
+            this.id = id;
+        }
+
+        /**
+         * Returns the id assigned to the value.
+         *
+         * @return the id, never {@link AttributeDictionary#NULL_ID}
+         */
+        public int getId() {
+            return id;
+        }
+    }
+
+    /**
+     * A dictionary entry that refers to its handle weakly.
+     */
+    private static final class Entry extends WeakReference<Handle> {
+        /** Key the entry is stored under, for removal once the handle is gone. */
+        final String key;
+
+        Entry(Handle handle, String key, ReferenceQueue<Handle> queue) {
+            super(handle, queue);
+            this.key = key;
+        }
+    }
+}